@@ -0,0 +1,42 @@
+package com.br.bills_test;
+
+import com.br.bills_test.bill.dto.BillRequest;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic synthetic rows shared by the benchmarks.
+ */
+public final class BenchmarkData {
+
+    public static final String CSV_HEADER = "expiringDate,paymentDate,amount,description\n";
+
+    private BenchmarkData() {
+    }
+
+    public static List<BillRequest> billRequests(int rows) {
+        List<BillRequest> requests = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            LocalDate expiringDate = LocalDate.of(2030, i % 12 + 1, i % 28 + 1);
+            LocalDate paymentDate = i % 3 == 0 ? null : expiringDate;
+            requests.add(new BillRequest(expiringDate, paymentDate, BigDecimal.valueOf(i % 100_000, 2), "Bill " + i));
+        }
+        return requests;
+    }
+
+    public static byte[] csv(int rows) {
+        StringBuilder csv = new StringBuilder(CSV_HEADER);
+        for (int i = 0; i < rows; i++) {
+            String expiringDate = String.format("%02d-%02d-2030", i % 28 + 1, i % 12 + 1);
+            csv.append(expiringDate).append(',')
+                    .append(i % 3 == 0 ? "" : expiringDate).append(',')
+                    .append(BigDecimal.valueOf(i % 100_000, 2)).append(',')
+                    .append("Bill ").append(i).append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
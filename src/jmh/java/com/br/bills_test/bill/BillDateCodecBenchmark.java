@@ -0,0 +1,121 @@
+package com.br.bills_test.bill;
+
+import com.br.bills_test.BenchmarkData;
+import com.br.bills_test.bill.dto.BillRequest;
+import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.config.DateFormats;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.opencsv.bean.CsvDate;
+import com.opencsv.bean.CsvToBeanBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the java.util.Date codecs the bill DTOs used before with the shared LocalDate
+ * DateTimeFormatter, per serialized bill and per parsed CSV row. Run with the gc profiler
+ * and compare gc.alloc.rate.norm between the legacy and javaTime variants.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BillDateCodecBenchmark {
+
+    private static final int CSV_ROWS = 1000;
+
+    private BillResponse response;
+    private LegacyBillResponse legacyResponse;
+    private ObjectWriter writer;
+    private ObjectWriter legacyWriter;
+    private byte[] csv;
+
+    @Setup
+    public void setUp() {
+        response = BillResponse.create(BenchmarkData.billRequests(2).get(1).toBill());
+        legacyResponse = new LegacyBillResponse(response.id(), toDate(response.expiringDate()),
+                toDate(response.paymentDate()), response.amount(), response.description(), response.status());
+        writer = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(DateFormats.jacksonModule())
+                .build()
+                .writerFor(BillResponse.class);
+        legacyWriter = Jackson2ObjectMapperBuilder.json().build().writerFor(LegacyBillResponse.class);
+        csv = BenchmarkData.csv(CSV_ROWS);
+    }
+
+    @Benchmark
+    public byte[] serializeBillJavaTime() throws JsonProcessingException {
+        return writer.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeBillLegacy() throws JsonProcessingException {
+        return legacyWriter.writeValueAsBytes(legacyResponse);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CSV_ROWS)
+    public void parseCsvRowJavaTime(Blackhole blackhole) {
+        parse(BillRequest.class, blackhole);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CSV_ROWS)
+    public void parseCsvRowLegacy(Blackhole blackhole) {
+        parse(LegacyBillRequest.class, blackhole);
+    }
+
+    private <T> void parse(Class<T> type, Blackhole blackhole) {
+        Iterator<T> iterator = new CsvToBeanBuilder<T>(
+                new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8))
+                .withType(type)
+                .build()
+                .iterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+
+    private static Date toDate(LocalDate localDate) {
+        return localDate == null ? null : Date.from(localDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    public record LegacyBillResponse(
+            Long id,
+            @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+            Date expiringDate,
+            @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
+            Date paymentDate,
+            BigDecimal amount,
+            String description,
+            BillStatus status
+    ) {
+    }
+
+    public static class LegacyBillRequest {
+        @CsvDate("dd-MM-yyyy")
+        Date expiringDate;
+        @CsvDate("dd-MM-yyyy")
+        Date paymentDate;
+        BigDecimal amount;
+        String description;
+    }
+}
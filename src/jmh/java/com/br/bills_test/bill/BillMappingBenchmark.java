@@ -0,0 +1,53 @@
+package com.br.bills_test.bill;
+
+import com.br.bills_test.BenchmarkData;
+import com.br.bills_test.bill.dto.BillRequest;
+import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.bill.entity.Bill;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row mapping between the web DTOs and the entity. Each operation maps a whole batch of rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BillMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    int rows;
+
+    private List<BillRequest> requests;
+    private List<Bill> bills;
+
+    @Setup
+    public void setUp() {
+        requests = BenchmarkData.billRequests(rows);
+        bills = requests.stream().map(BillRequest::toBill).toList();
+    }
+
+    @Benchmark
+    public void requestToBill(Blackhole blackhole) {
+        for (BillRequest request : requests) {
+            blackhole.consume(request.toBill());
+        }
+    }
+
+    @Benchmark
+    public void billToResponse(Blackhole blackhole) {
+        for (Bill bill : bills) {
+            blackhole.consume(BillResponse.create(bill));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.br.bills_test.bill;
+
+import com.br.bills_test.BenchmarkData;
+import com.br.bills_test.bill.dto.BillRequest;
+import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.config.DateFormats;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of BillResponse, including its dd-MM-yyyy date formats, configured like
+ * the ObjectMapper Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BillResponseSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    int rows;
+
+    private List<BillResponse> responses;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        responses = BenchmarkData.billRequests(rows).stream()
+                .map(BillRequest::toBill)
+                .map(BillResponse::create)
+                .toList();
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(DateFormats.jacksonModule())
+                .build();
+        writer = objectMapper.writerFor(BillResponse.class);
+    }
+
+    @Benchmark
+    public long serializeEachResponse() throws JsonProcessingException {
+        long bytes = 0;
+        for (BillResponse response : responses) {
+            bytes += writer.writeValueAsBytes(response).length;
+        }
+        return bytes;
+    }
+}
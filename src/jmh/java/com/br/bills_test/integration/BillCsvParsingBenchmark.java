@@ -0,0 +1,53 @@
+package com.br.bills_test.integration;
+
+import com.br.bills_test.BenchmarkData;
+import com.br.bills_test.bill.dto.BillRequest;
+import com.opencsv.bean.CsvToBean;
+import com.opencsv.bean.CsvToBeanBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpenCSV bean binding of the import format, including the dd-MM-yyyy LocalDate conversions,
+ * read through the iterator like the chunked importer does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BillCsvParsingBenchmark {
+
+    @Param({"1000", "100000"})
+    int rows;
+
+    private byte[] csv;
+
+    @Setup
+    public void setUp() {
+        csv = BenchmarkData.csv(rows);
+    }
+
+    @Benchmark
+    public void parseRows(Blackhole blackhole) {
+        CsvToBean<BillRequest> csvToBean = new CsvToBeanBuilder<BillRequest>(
+                new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8))
+                .withType(BillRequest.class)
+                .build();
+        Iterator<BillRequest> iterator = csvToBean.iterator();
+        while (iterator.hasNext()) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.br.bills_test.loadtest;
+
+import com.br.bills_test.BillsTestApplication;
+import com.br.bills_test.bill.index.PaidAmountIndex;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Boots the application once per combination of request threads (Tomcat's platform thread pool or
+ * virtual threads) and HikariCP pool size, drives the same request mix against it at a fixed arrival
+ * rate and reports throughput and latency percentiles per operation. Needs the Postgres from
+ * docker-compose.yml; the synthetic dataset is seeded on the first run and reused by later ones.
+ * Run it with {@code ./gradlew loadTest}, see {@link LoadTestSettings} for the parameters.
+ */
+public final class BillLoadTest {
+
+    private BillLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        System.out.println(settings);
+        List<LoadTestResult> results = new ArrayList<>();
+        LoadTestDataset dataset = null;
+        for (ServerThreads serverThreads : settings.serverThreads()) {
+            for (int poolSize : settings.poolSizes()) {
+                try (ConfigurableApplicationContext context = start(serverThreads, poolSize)) {
+                    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+                    if (dataset == null) {
+                        dataset = LoadTestDataset.seed(jdbcTemplate, settings.rows());
+                    }
+                    dataset.reset(jdbcTemplate);
+                    context.getBean(PaidAmountIndex.class).rebuild();
+                    LoadTestResult result = measure(context, dataset, settings, serverThreads, poolSize);
+                    LoadTestReport.print(result, System.out);
+                    results.add(result);
+                    dataset.reset(jdbcTemplate);
+                }
+            }
+        }
+        LoadTestReport.printSummary(results, System.out);
+        LoadTestReport.writeCsv(results, settings.resultFile());
+        System.out.println("Results written to " + settings.resultFile().toAbsolutePath());
+    }
+
+    private static ConfigurableApplicationContext start(ServerThreads serverThreads, int poolSize) {
+        System.out.printf("%nStarting with %s threads and a pool of %d connections%n",
+                serverThreads.name().toLowerCase(Locale.ROOT), poolSize);
+        return new SpringApplicationBuilder(BillsTestApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + serverThreads.isVirtual(),
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN"
+                );
+    }
+
+    private static LoadTestResult measure(ConfigurableApplicationContext context,
+                                          LoadTestDataset dataset,
+                                          LoadTestSettings settings,
+                                          ServerThreads serverThreads,
+                                          int poolSize) {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        RequestMix mix = new RequestMix(URI.create("http://localhost:" + port), dataset, settings.mix(), settings.uploadRows());
+        try (HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build()) {
+            LoadGenerator generator = new LoadGenerator(client, settings.rate(), settings.maxInFlight());
+            generator.run(mix, settings.warmup());
+            Map<Operation, LatencyRecorder> recorders = generator.run(mix, settings.duration());
+
+            Map<String, LatencyStats> stats = new LinkedHashMap<>();
+            LatencyRecorder total = new LatencyRecorder();
+            recorders.forEach((operation, recorder) -> {
+                if (settings.mix().getOrDefault(operation, 0) > 0) {
+                    stats.put(operation.key(), recorder.stats(settings.duration()));
+                }
+                total.addAll(recorder);
+            });
+            stats.put(LoadTestResult.TOTAL, total.stats(settings.duration()));
+            return new LoadTestResult(serverThreads, poolSize, stats);
+        }
+    }
+}
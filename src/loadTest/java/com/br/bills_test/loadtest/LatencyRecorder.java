@@ -0,0 +1,72 @@
+package com.br.bills_test.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Collects every latency of one operation so percentiles are exact rather than bucketed.
+ */
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+    private int dropped;
+
+    synchronized void record(long latencyNanos, boolean expected) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (!expected) {
+            errors++;
+        }
+    }
+
+    synchronized void recordDropped() {
+        dropped++;
+    }
+
+    synchronized void addAll(LatencyRecorder other) {
+        synchronized (other) {
+            if (count + other.count > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, count + other.count));
+            }
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            errors += other.errors;
+            dropped += other.dropped;
+        }
+    }
+
+    /**
+     * Summarizes the recorded requests.
+     *
+     * @param  duration  the measured window, used to turn counts into a rate
+     * @return           the counts, throughput and latency percentiles
+     */
+    synchronized LatencyStats stats(Duration duration) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        double seconds = duration.toNanos() / 1e9;
+        return new LatencyStats(
+                count,
+                errors,
+                dropped,
+                (count - errors) / seconds,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.90),
+                percentile(sorted, 0.99),
+                percentile(sorted, 0.999),
+                count == 0 ? 0 : sorted[count - 1] / 1e6
+        );
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
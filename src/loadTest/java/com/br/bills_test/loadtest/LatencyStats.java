@@ -0,0 +1,22 @@
+package com.br.bills_test.loadtest;
+
+/**
+ * What one operation did during a measured window. Latencies are in milliseconds.
+ *
+ * @param requests    requests that got a response or failed
+ * @param errors      requests that failed or got an unexpected status
+ * @param dropped     arrivals not sent because too many requests were already in flight
+ * @param throughput  successful requests per second
+ */
+record LatencyStats(
+        int requests,
+        int errors,
+        int dropped,
+        double throughput,
+        double p50,
+        double p90,
+        double p99,
+        double p999,
+        double max
+) {
+}
@@ -0,0 +1,76 @@
+package com.br.bills_test.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests start at fixed arrival times whatever the server does, each on its own
+ * virtual thread. Latency is measured from the time a request was due to start, so a server that
+ * falls behind shows up in the percentiles instead of quietly lowering the request rate.
+ */
+final class LoadGenerator {
+
+    private final HttpClient client;
+    private final long intervalNanos;
+    private final Semaphore inFlight;
+
+    LoadGenerator(HttpClient client, int rate, int maxInFlight) {
+        this.client = client;
+        this.intervalNanos = 1_000_000_000L / rate;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Runs the mix for the given duration and waits for the requests still in flight.
+     *
+     * @param  mix       the operations to send
+     * @param  duration  how long new requests keep arriving
+     * @return           the latencies recorded per operation
+     */
+    Map<Operation, LatencyRecorder> run(RequestMix mix, Duration duration) {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        long arrivals = duration.toNanos() / intervalNanos;
+        long startedAt = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < arrivals; i++) {
+                long scheduledAt = startedAt + i * intervalNanos;
+                long wait;
+                while ((wait = scheduledAt - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = mix.next();
+                LatencyRecorder recorder = recorders.get(operation);
+                if (!inFlight.tryAcquire()) {
+                    recorder.recordDropped();
+                    continue;
+                }
+                executor.execute(() -> send(mix, operation, scheduledAt, recorder));
+            }
+        }
+        return recorders;
+    }
+
+    private void send(RequestMix mix, Operation operation, long scheduledAt, LatencyRecorder recorder) {
+        try {
+            HttpResponse<Void> response = client.send(mix.request(operation), HttpResponse.BodyHandlers.discarding());
+            recorder.record(System.nanoTime() - scheduledAt, operation.isExpected(response.statusCode()));
+        } catch (IOException e) {
+            recorder.record(System.nanoTime() - scheduledAt, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.release();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.br.bills_test.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The synthetic bills the load test reads and pays. Rows are generated in SQL, tagged through their
+ * description and kept between runs, so only the missing ones are inserted. Three in ten are paid
+ * within the last year; the rest expire across the previous and the next year.
+ */
+final class LoadTestDataset {
+
+    static final String UPLOAD_PREFIX = "load-test-upload-";
+
+    private static final int SEED_BATCH_SIZE = 100_000;
+
+    private static final String COUNT_SEEDED = "SELECT count(*) FROM bills " +
+            "WHERE descricao LIKE 'load-test-open-%' OR descricao LIKE 'load-test-paid-%'";
+
+    private static final String SEED = "INSERT INTO bills (valor, descricao, data_vencimento, data_pagamento, situacao) " +
+            "SELECT (g % 100000) / 100.0, " +
+            "CASE WHEN g % 10 < 3 THEN 'load-test-paid-' ELSE 'load-test-open-' END || g, " +
+            "current_date - 365 + g % 730, " +
+            "CASE WHEN g % 10 < 3 THEN current_date - 365 + g % 365 END, " +
+            "CASE WHEN g % 10 < 3 THEN 'PAID' " +
+            "WHEN current_date - 365 + g % 730 < current_date THEN 'EXPIRED' ELSE 'OPEN' END " +
+            "FROM generate_series(?::int, ?::int) AS g";
+
+    private final long[] ids;
+    private final long[] openIds;
+
+    private LoadTestDataset(long[] ids, long[] openIds) {
+        this.ids = ids;
+        this.openIds = openIds;
+    }
+
+    /**
+     * Tops the dataset up to the given number of rows and loads the ids the requests pick from.
+     *
+     * @param  jdbcTemplate  connected to the database the application under test uses
+     * @param  rows          how many seeded bills the dataset should have
+     * @return               the dataset
+     */
+    static LoadTestDataset seed(JdbcTemplate jdbcTemplate, int rows) {
+        Integer seeded = jdbcTemplate.queryForObject(COUNT_SEEDED, Integer.class);
+        int present = seeded == null ? 0 : seeded;
+        for (int from = present; from < rows; from += SEED_BATCH_SIZE) {
+            int to = Math.min(from + SEED_BATCH_SIZE, rows) - 1;
+            jdbcTemplate.update(SEED, from, to);
+            System.out.printf("Seeded %,d of %,d bills%n", to + 1, rows);
+        }
+        if (present < rows) {
+            jdbcTemplate.execute("ANALYZE bills");
+        }
+        long[] ids = jdbcTemplate.queryForList("SELECT id FROM bills " +
+                        "WHERE descricao LIKE 'load-test-open-%' OR descricao LIKE 'load-test-paid-%'", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        long[] openIds = jdbcTemplate.queryForList("SELECT id FROM bills WHERE descricao LIKE 'load-test-open-%'", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        return new LoadTestDataset(ids, openIds);
+    }
+
+    /**
+     * Undoes what a previous run changed: removes uploaded bills and reopens the bills it paid,
+     * so every combination starts from the same data.
+     *
+     * @param  jdbcTemplate  connected to the database the application under test uses
+     */
+    void reset(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM bills WHERE descricao LIKE ?", UPLOAD_PREFIX + "%");
+        jdbcTemplate.update("UPDATE bills SET data_pagamento = NULL, " +
+                "situacao = CASE WHEN data_vencimento < current_date THEN 'EXPIRED' ELSE 'OPEN' END " +
+                "WHERE descricao LIKE 'load-test-open-%' AND situacao = 'PAID'");
+    }
+
+    long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    long randomOpenId() {
+        return openIds[ThreadLocalRandom.current().nextInt(openIds.length)];
+    }
+}
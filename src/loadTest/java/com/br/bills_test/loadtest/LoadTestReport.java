@@ -0,0 +1,82 @@
+package com.br.bills_test.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Prints the results as tables and writes them as CSV, one line per combination and operation.
+ */
+final class LoadTestReport {
+
+    private static final String ROW_FORMAT = "%-10s %9s %7s %8s %10s %9s %9s %9s %9s %9s%n";
+    private static final String CSV_HEADER = "serverThreads,poolSize,operation,requests,errors,dropped," +
+            "throughput,p50Ms,p90Ms,p99Ms,p999Ms,maxMs";
+
+    private LoadTestReport() {
+    }
+
+    static void print(LoadTestResult result, PrintStream out) {
+        out.printf("%n%s threads, pool size %d%n", result.serverThreads().name().toLowerCase(Locale.ROOT), result.poolSize());
+        out.printf(ROW_FORMAT, "operation", "requests", "errors", "dropped", "ok/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        result.stats().forEach((operation, stats) -> out.printf(ROW_FORMAT,
+                operation,
+                stats.requests(),
+                stats.errors(),
+                stats.dropped(),
+                format("%.1f", stats.throughput()),
+                format("%.2f", stats.p50()),
+                format("%.2f", stats.p90()),
+                format("%.2f", stats.p99()),
+                format("%.2f", stats.p999()),
+                format("%.2f", stats.max())));
+    }
+
+    static void printSummary(List<LoadTestResult> results, PrintStream out) {
+        out.printf("%nSummary (all operations)%n");
+        out.printf("%-10s %9s %10s %9s %9s %9s %7s%n", "threads", "pool", "ok/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+        for (LoadTestResult result : results) {
+            LatencyStats total = result.stats().get(LoadTestResult.TOTAL);
+            out.printf("%-10s %9d %10s %9s %9s %9s %7d%n",
+                    result.serverThreads().name().toLowerCase(Locale.ROOT),
+                    result.poolSize(),
+                    format("%.1f", total.throughput()),
+                    format("%.2f", total.p50()),
+                    format("%.2f", total.p99()),
+                    format("%.2f", total.p999()),
+                    total.errors() + total.dropped());
+        }
+    }
+
+    static void writeCsv(List<LoadTestResult> results, Path file) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(CSV_HEADER);
+        for (LoadTestResult result : results) {
+            result.stats().forEach((operation, stats) -> lines.add(String.join(",",
+                    result.serverThreads().name().toLowerCase(Locale.ROOT),
+                    String.valueOf(result.poolSize()),
+                    operation,
+                    String.valueOf(stats.requests()),
+                    String.valueOf(stats.errors()),
+                    String.valueOf(stats.dropped()),
+                    format("%.2f", stats.throughput()),
+                    format("%.3f", stats.p50()),
+                    format("%.3f", stats.p90()),
+                    format("%.3f", stats.p99()),
+                    format("%.3f", stats.p999()),
+                    format("%.3f", stats.max()))));
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, lines);
+    }
+
+    private static String format(String format, double value) {
+        return String.format(Locale.ROOT, format, value);
+    }
+}
@@ -0,0 +1,15 @@
+package com.br.bills_test.loadtest;
+
+import java.util.Map;
+
+/**
+ * The measurements of one combination of request thread type and connection pool size.
+ *
+ * @param serverThreads  the threads Tomcat ran requests on
+ * @param poolSize       the HikariCP maximum pool size
+ * @param stats          the stats per operation key, followed by the "total" across all operations
+ */
+record LoadTestResult(ServerThreads serverThreads, int poolSize, Map<String, LatencyStats> stats) {
+
+    static final String TOTAL = "total";
+}
@@ -0,0 +1,74 @@
+package com.br.bills_test.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load test parameters, read from loadTest.* system properties (forwarded from -PloadTest.* by Gradle).
+ *
+ * @param rows           size of the synthetic dataset seeded into the database
+ * @param rate           requests started per second, independently of how fast the server answers
+ * @param warmup         how long the mix runs before measuring, to warm up the JIT, caches and pools
+ * @param duration       how long each combination is measured
+ * @param poolSizes      the HikariCP maximum pool sizes to compare
+ * @param serverThreads  the request thread types to compare
+ * @param mix            the relative weight of each operation
+ * @param uploadRows     rows in each uploaded CSV file
+ * @param maxInFlight    requests allowed in flight before new arrivals are dropped and counted
+ * @param resultFile     CSV file the results of every combination are written to
+ */
+record LoadTestSettings(
+        int rows,
+        int rate,
+        Duration warmup,
+        Duration duration,
+        List<Integer> poolSizes,
+        List<ServerThreads> serverThreads,
+        Map<Operation, Integer> mix,
+        int uploadRows,
+        int maxInFlight,
+        Path resultFile
+) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.parseInt(property("rows", "1000000")),
+                Integer.parseInt(property("rate", "500")),
+                DurationStyle.detectAndParse(property("warmup", "15s")),
+                DurationStyle.detectAndParse(property("duration", "60s")),
+                Arrays.stream(property("poolSizes", "5,10,20,50").split(","))
+                        .map(String::trim)
+                        .map(Integer::valueOf)
+                        .toList(),
+                Arrays.stream(property("serverThreads", "platform,virtual").split(","))
+                        .map(ServerThreads::of)
+                        .toList(),
+                mix(property("mix", "get=50,unpaid=15,paidAmount=15,pay=15,upload=5")),
+                Integer.parseInt(property("uploadRows", "100")),
+                Integer.parseInt(property("maxInFlight", "10000")),
+                Path.of(property("resultFile", "load-test-results.csv"))
+        );
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] keyAndWeight = entry.split("=");
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Mix entries must look like operation=weight, got: " + entry);
+            }
+            mix.put(Operation.of(keyAndWeight[0].trim()), Integer.valueOf(keyAndWeight[1].trim()));
+        }
+        return mix;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadTest." + name, defaultValue);
+    }
+}
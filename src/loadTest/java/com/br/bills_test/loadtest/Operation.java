@@ -0,0 +1,42 @@
+package com.br.bills_test.loadtest;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The endpoints in the request mix and the status codes each one answers when working as intended.
+ * Paying a random bill may hit one that is already paid, and reading a random id may hit a deleted
+ * one, so 409 and 404 are not counted as errors there.
+ */
+enum Operation {
+    GET_BY_ID("get", 200, 404),
+    UNPAID_PAGE("unpaid", 200),
+    PAID_AMOUNT("paidAmount", 200),
+    PAY("pay", 204, 409),
+    UPLOAD("upload", 200);
+
+    private final String key;
+    private final Set<Integer> expectedStatuses;
+
+    Operation(String key, Integer... expectedStatuses) {
+        this.key = key;
+        this.expectedStatuses = Set.of(expectedStatuses);
+    }
+
+    static Operation of(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation " + key + ", expected one of "
+                        + Arrays.stream(values()).map(Operation::key).collect(Collectors.joining(", "))));
+    }
+
+    String key() {
+        return key;
+    }
+
+    boolean isExpected(int status) {
+        return expectedStatuses.contains(status);
+    }
+}
@@ -0,0 +1,97 @@
+package com.br.bills_test.loadtest;
+
+import com.br.bills_test.config.DateFormats;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks the next operation by weight and builds its request against random bills of the dataset.
+ */
+final class RequestMix {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String BOUNDARY = "load-test-boundary";
+    private static final int UNPAID_PAGES = 100;
+
+    private final URI baseUri;
+    private final LoadTestDataset dataset;
+    private final Operation[] weighted;
+    private final int uploadRows;
+    private final AtomicLong uploads = new AtomicLong();
+
+    RequestMix(URI baseUri, LoadTestDataset dataset, Map<Operation, Integer> mix, int uploadRows) {
+        this.baseUri = baseUri;
+        this.dataset = dataset;
+        this.uploadRows = uploadRows;
+        List<Operation> weighted = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(operation);
+            }
+        });
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("The request mix has no operation with a positive weight");
+        }
+        this.weighted = weighted.toArray(Operation[]::new);
+    }
+
+    Operation next() {
+        return weighted[ThreadLocalRandom.current().nextInt(weighted.length)];
+    }
+
+    HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case GET_BY_ID -> get("/bills/" + dataset.randomId());
+            case UNPAID_PAGE -> get("/bills/unpaid?page=" + random.nextInt(UNPAID_PAGES) + "&size=10");
+            case PAID_AMOUNT -> {
+                LocalDate startDate = LocalDate.now().minusDays(365 - random.nextInt(335));
+                LocalDate endDate = startDate.plusDays(random.nextInt(1, 31));
+                yield get("/bills/paidAmount?startDate=" + DateFormats.FORMATTER.format(startDate)
+                        + "&endDate=" + DateFormats.FORMATTER.format(endDate));
+            }
+            case PAY -> builder("/bills/pay/" + dataset.randomOpenId())
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                    .build();
+            case UPLOAD -> builder("/bills/upload/chunked")
+                    .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                    .header("Accept", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(multipartCsv()))
+                    .build();
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return builder(path).GET().build();
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).timeout(REQUEST_TIMEOUT);
+    }
+
+    private String multipartCsv() {
+        long upload = uploads.incrementAndGet();
+        StringBuilder body = new StringBuilder()
+                .append("--").append(BOUNDARY).append("\r\n")
+                .append("Content-Disposition: form-data; name=\"file\"; filename=\"bills.csv\"\r\n")
+                .append("Content-Type: text/csv\r\n\r\n")
+                .append("expiringDate,paymentDate,amount,description\n");
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < uploadRows; i++) {
+            String expiringDate = DateFormats.FORMATTER.format(today.plusDays(i % 60));
+            body.append(expiringDate).append(',')
+                    .append(i % 3 == 0 ? expiringDate : "").append(',')
+                    .append(i % 1000).append(".50,")
+                    .append(LoadTestDataset.UPLOAD_PREFIX).append(upload).append('-').append(i).append('\n');
+        }
+        return body.append("\r\n--").append(BOUNDARY).append("--\r\n").toString();
+    }
+}
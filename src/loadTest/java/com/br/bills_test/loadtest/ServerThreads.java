@@ -0,0 +1,19 @@
+package com.br.bills_test.loadtest;
+
+import java.util.Locale;
+
+/**
+ * The threads Tomcat runs requests on: its bounded platform thread pool, or one virtual thread per request.
+ */
+enum ServerThreads {
+    PLATFORM,
+    VIRTUAL;
+
+    static ServerThreads of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    boolean isVirtual() {
+        return this == VIRTUAL;
+    }
+}
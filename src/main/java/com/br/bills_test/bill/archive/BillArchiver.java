@@ -0,0 +1,119 @@
+package com.br.bills_test.bill.archive;
+
+import com.br.bills_test.bill.repository.BillArchiveRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps BILLS small by moving bills paid longer ago than the configured age to BILLS_ARCHIVE.
+ * Work is done in small set-based batches, each in its own transaction, with a pause in between
+ * so user traffic is not starved. Archived rows stop matching, so an interrupted run simply
+ * resumes on the next schedule. Archived bills are still returned by the bill service's reads
+ * and counted in its paid amounts, and the paid amount index is unaffected since the daily
+ * totals do not change.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "bills.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class BillArchiver {
+
+    private final BillArchiveRepository archiveRepository;
+    private final Period minAge;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration pause;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Counter archivedRows;
+    private final DistributionSummary rowsPerRun;
+    private final Timer runTimer;
+
+    @Autowired
+    public BillArchiver(BillArchiveRepository archiveRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${bills.archive.min-age:1y}") Period minAge,
+                        @Value("${bills.archive.batch-size:1000}") int batchSize,
+                        @Value("${bills.archive.max-batches-per-run:1000}") int maxBatchesPerRun,
+                        @Value("${bills.archive.pause:50ms}") Duration pause) {
+        this.archiveRepository = archiveRepository;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pause = pause;
+        this.archivedRows = Counter.builder("bills.archive.rows")
+                .description("Paid bills moved from BILLS to BILLS_ARCHIVE")
+                .register(meterRegistry);
+        this.rowsPerRun = DistributionSummary.builder("bills.archive.run.rows")
+                .description("Paid bills archived per archiver run")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("bills.archive.run.duration")
+                .description("Duration of an archiver run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${bills.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        archive();
+    }
+
+    /**
+     * Archives paid bills in batches until none is old enough or the per-run batch limit is reached.
+     * Runs are never overlapped within the same instance.
+     *
+     * @return the number of bills moved to the archive
+     */
+    public long archive() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Archiving already running, skipping");
+            return 0;
+        }
+        long startedAt = System.nanoTime();
+        long total = 0;
+        int batches = 0;
+        try {
+            LocalDate cutoff = LocalDate.now().minus(minAge);
+            int archived;
+            do {
+                archived = archiveRepository.archivePaidBefore(cutoff, batchSize);
+                total += archived;
+                batches++;
+                archivedRows.increment(archived);
+                if (archived == batchSize && batches < maxBatchesPerRun) {
+                    pauseBetweenBatches();
+                }
+            } while (archived == batchSize && batches < maxBatchesPerRun && !Thread.currentThread().isInterrupted());
+        } finally {
+            running.set(false);
+            long elapsed = System.nanoTime() - startedAt;
+            rowsPerRun.record(total);
+            runTimer.record(Duration.ofNanos(elapsed));
+            log.info("Archiving moved {} paid bills to the archive in {} batches ({} ms)",
+                    total, batches, Duration.ofNanos(elapsed).toMillis());
+        }
+        return total;
+    }
+
+    private void pauseBetweenBatches() {
+        if (pause.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(pause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.br.bills_test.bill.change;
+
+import com.br.bills_test.bill.dto.ResourceVersion;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Change marker of the unpaid bill listings, kept in the 'unpaid' row of BILLS_CHANGES so every
+ * instance and replica sees the same value. Writes only flag a change once their transaction
+ * commits, and the flag is turned into a single bump per flush interval. The row is never
+ * contended, and the marker never moves before the data it stands for is visible. Readers must
+ * read the marker before the page it validates: a page newer than its marker is only served
+ * again once, while a marker newer than its page would keep a stale page cached.
+ */
+@Component
+@Slf4j
+public class UnpaidBillsMarker {
+
+    static final String MARKER = "unpaid";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicBoolean changed = new AtomicBoolean();
+
+    @Autowired
+    public UnpaidBillsMarker(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Flags the unpaid listings as changed once the current transaction commits.
+     */
+    public void changed() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed.set(true);
+                }
+            });
+        } else {
+            changed.set(true);
+        }
+    }
+
+    /**
+     * Reads the current marker, within the caller's transaction.
+     *
+     * @return the version and time of the last flushed change
+     */
+    public ResourceVersion current() {
+        return jdbcTemplate.queryForObject("SELECT versao, data_alteracao FROM bills_changes WHERE nome = ?",
+                (rs, rowNum) -> {
+                    Timestamp modified = rs.getTimestamp("data_alteracao");
+                    return new ResourceVersion(rs.getLong("versao"), modified != null ? modified.toInstant() : null);
+                }, MARKER);
+    }
+
+    /**
+     * Bumps the marker if anything changed since the last flush. On failure the change is kept
+     * for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${bills.etag.unpaid-flush-interval:1s}")
+    public void flush() {
+        if (!changed.getAndSet(false)) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("UPDATE bills_changes SET versao = versao + 1, data_alteracao = CURRENT_TIMESTAMP " +
+                    "WHERE nome = ?", MARKER);
+        } catch (DataAccessException e) {
+            changed.set(true);
+            log.warn("Could not bump the unpaid bills marker, retrying on the next flush", e);
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
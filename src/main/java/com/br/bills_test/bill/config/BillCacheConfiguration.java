@@ -0,0 +1,40 @@
+package com.br.bills_test.bill.config;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * In-process cache for single bill reads. Entries are bounded by size and expire after a write,
+ * and statistics are recorded so hits, misses and evictions show up in the cache metrics.
+ * <p>
+ * The cache advice runs outside the transaction advice, so a hit returns before a transaction is
+ * opened or a pooled connection is taken. Puts and evictions made inside a transaction are applied
+ * once it commits, so a concurrent read cannot cache the row a pending write is replacing.
+ */
+@Configuration
+@EnableCaching(order = BillCacheConfiguration.CACHE_ADVICE_ORDER)
+public class BillCacheConfiguration {
+
+    public static final String BILLS_CACHE = "bills";
+
+    /**
+     * One step ahead of the transaction advice, which keeps the default lowest precedence.
+     */
+    public static final int CACHE_ADVICE_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${bills.cache.spec:maximumSize=10000,expireAfterWrite=60s,recordStats}") String spec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(BILLS_CACHE);
+        cacheManager.setCaffeineSpec(CaffeineSpec.parse(spec));
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -1,8 +1,12 @@
 package com.br.bills_test.bill.controller;
 
+import com.br.bills_test.bill.dto.BillCursor;
 import com.br.bills_test.bill.dto.BillRequest;
 import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.bill.dto.BulkPayResponse;
+import com.br.bills_test.bill.dto.CursorPage;
 import com.br.bills_test.bill.dto.CustomPage;
+import com.br.bills_test.bill.dto.ResourceVersion;
 import com.br.bills_test.bill.dto.TotalPaidResponse;
 import com.br.bills_test.bill.entity.Bill;
 import com.br.bills_test.bill.service.BillService;
@@ -12,19 +16,25 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
-import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
 @RequestMapping("/bills")
 public class BillController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final int MAX_BATCH_SIZE = 10_000;
+    private static final int MAX_BULK_PAY_SIZE = 100_000;
+
     public final BillService billService;
 
     @Autowired
@@ -34,20 +44,68 @@ public class BillController {
 
     /**
      * Retrieves a page of unpaid bills.
+     * The page is validated by the change marker of the unpaid bills: if the client already has the
+     * current version, it returns a ResponseEntity with a status of NOT_MODIFIED without querying the page.
      *
-     * @param  pageable   the pageable object specifying the page size, sorting, and pagination information
-     * @return            a ResponseEntity containing a CustomPage of BillResponse objects and a status code of OK
+     * @param  pageable     the pageable object specifying the page size, sorting, and pagination information
+     * @param  ifNoneMatch  the ETags the client already has, if any
+     * @return              a ResponseEntity containing a CustomPage of BillResponse objects and a status code of OK
      */
     @GetMapping("/unpaid")
-    public ResponseEntity<CustomPage<BillResponse>> getUnpaidBills(@PageableDefault(sort = {"expiringDate"}, direction = Sort.Direction.ASC, value = 10) final Pageable pageable) {
-        Page<BillResponse> billResponses = billService.getUnpaidBills(pageable).map(BillResponse::create);
-        return new ResponseEntity<>(new CustomPage<>(billResponses), HttpStatus.OK);
+    public ResponseEntity<CustomPage<BillResponse>> getUnpaidBills(
+            @PageableDefault(sort = {"expiringDate"}, direction = Sort.Direction.ASC, value = 10) final Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        ResourceVersion version = billService.getUnpaidBillsVersion();
+        if (matches(ifNoneMatch, version)) {
+            return notModified(version);
+        }
+        Page<BillResponse> billResponses = billService.getUnpaidBills(pageable);
+        return withValidators(version).body(new CustomPage<>(billResponses));
+    }
+
+    /**
+     * Retrieves a page of unpaid bills using keyset pagination. Pages are ordered by expiring date and id,
+     * and the returned nextCursor is passed back to fetch the following page. It is absent on the last page.
+     * If the cursor is malformed or the size is out of range, it returns a ResponseEntity with a status of BAD_REQUEST.
+     *
+     * Pages are validated by the change marker of the unpaid bills, like the offset pages.
+     *
+     * @param  cursor       the opaque cursor returned by the previous page, or null for the first page
+     * @param  size         the number of bills per page
+     * @param  ifNoneMatch  the ETags the client already has, if any
+     * @return              a ResponseEntity containing a CursorPage of BillResponse objects and a status code
+     */
+    @GetMapping("/unpaid/cursor")
+    public ResponseEntity<CursorPage<BillResponse>> getUnpaidBillsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        BillCursor after;
+        try {
+            after = cursor == null ? null : BillCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        ResourceVersion version = billService.getUnpaidBillsVersion();
+        if (matches(ifNoneMatch, version)) {
+            return notModified(version);
+        }
+        List<BillResponse> bills = billService.getUnpaidBillsAfter(after, size + 1);
+        boolean hasNext = bills.size() > size;
+        List<BillResponse> page = hasNext ? bills.subList(0, size) : bills;
+        String nextCursor = hasNext ? BillCursor.of(page.get(size - 1)).encode() : null;
+        return withValidators(version).body(new CursorPage<>(page, size, nextCursor));
     }
 
     @GetMapping("/paidAmount")
     public ResponseEntity<TotalPaidResponse> getPaidAmount(
-            @RequestParam @DateTimeFormat(pattern="dd-MM-yyyy") Date startDate,
-            @RequestParam @DateTimeFormat(pattern="dd-MM-yyyy") Date endDate
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate
     ) {
         BigDecimal totalPaid = billService.getTotalPaid(startDate, endDate);
         return new ResponseEntity<>(new TotalPaidResponse(totalPaid), HttpStatus.OK);
@@ -58,43 +116,120 @@ public class BillController {
      * It takes a bill ID as a path variable and returns a ResponseEntity.
      * If the bill is found and marked as paid, it returns a ResponseEntity with a status of NO_CONTENT.
      * If the bill is not found, it returns a ResponseEntity with a status of NOT_FOUND.
+     * If the bill was already paid, it returns a ResponseEntity with a status of CONFLICT.
      *
      * @param id The ID of the bill to be paid.
      * @return A ResponseEntity containing a BillResponse object and a status code.
      */
     @PatchMapping(path = "pay/{id}")
     public ResponseEntity<BillResponse> pay(@PathVariable Long id) {
-        Optional<Bill> paidBill = billService.pay(id);
+        Optional<Bill> paidBill;
+        try {
+            paidBill = billService.pay(id);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
         if (paidBill.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    /**
+     * Pays all the bills with the given IDs using set-based updates.
+     * If no ID is given or there are more than the allowed amount, it returns a ResponseEntity with a status of BAD_REQUEST.
+     *
+     * @param ids The IDs of the bills to be paid.
+     * @return A ResponseEntity containing the ids that were paid, already paid or not found, and a status of OK.
+     */
+    @PatchMapping(path = "pay")
+    public ResponseEntity<BulkPayResponse> payAll(@RequestBody List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BULK_PAY_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(billService.payAll(ids), HttpStatus.OK);
+    }
+
+    /**
+     * Rewrites the bill with the given ID with the fields of the request, in a single update.
+     * If the bill is updated, it returns a ResponseEntity with a status of NO_CONTENT.
+     * If the bill is not found, it returns a ResponseEntity with a status of NOT_FOUND.
+     * If the bill was archived, it is read-only and a ResponseEntity with a status of CONFLICT is returned.
+     *
+     * @param id The ID of the bill to be updated.
+     * @param billRequest The new fields of the bill.
+     * @return A ResponseEntity with a status code.
+     */
     @PutMapping(path = "/{id}")
     public ResponseEntity<BillResponse> update(@PathVariable Long id, @RequestBody BillRequest billRequest ) {
-        Optional<Bill> paidBill = billService.update(id, billRequest.toBill());
+        Optional<Bill> paidBill;
+        try {
+            paidBill = billService.update(id, billRequest.toBill());
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
         if (paidBill.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    /**
+     * Changes only the fields present in the request on the bill with the given ID, in a single update.
+     * If no field is given, it returns a ResponseEntity with a status of BAD_REQUEST.
+     * If the bill is updated, it returns a ResponseEntity with a status of NO_CONTENT.
+     * If the bill is not found, it returns a ResponseEntity with a status of NOT_FOUND.
+     * If the bill was archived, it is read-only and a ResponseEntity with a status of CONFLICT is returned.
+     *
+     * @param id The ID of the bill to be updated.
+     * @param changes The fields to change; absent fields are left as they are.
+     * @return A ResponseEntity with a status code.
+     */
+    @PatchMapping(path = "/{id}")
+    public ResponseEntity<BillResponse> patch(@PathVariable Long id, @RequestBody BillRequest changes) {
+        if (changes.getExpiringDate() == null && changes.getPaymentDate() == null
+                && changes.getAmount() == null && changes.getDescription() == null) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        Optional<Bill> updatedBill;
+        try {
+            updatedBill = billService.patch(id, changes);
+        } catch (IllegalStateException e) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+        if (updatedBill.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
     /**
      * Retrieves a bill by its ID and returns it as a ResponseEntity.
-     * If the bill is found, it returns a ResponseEntity with the bill data and a status of OK.
+     * If the bill is found, it returns a ResponseEntity with the bill data, its ETag and Last-Modified, and a status of OK.
+     * If the client sent the current ETag, it returns a ResponseEntity with a status of NOT_MODIFIED, checked
+     * against the cached bill, or against the bill version alone when the bill is not cached.
      * If the bill is not found, it returns a ResponseEntity with a status of NOT_FOUND.
      *
      * @param id The ID of the bill to retrieve.
+     * @param ifNoneMatch The ETags the client already has, if any.
      * @return A ResponseEntity containing a BillResponse object and a status code.
      */
     @GetMapping(path = "/{id}")
-    public ResponseEntity<BillResponse> getById(@PathVariable Long id) {
+    public ResponseEntity<BillResponse> getById(@PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<ResourceVersion> version = billService.getVersion(id);
+            if (version.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            if (matches(ifNoneMatch, version.get())) {
+                return notModified(version.get());
+            }
+        }
         Optional<Bill> optionalBill = billService.get(id);
         return optionalBill.map(bill ->
-                new ResponseEntity<>(BillResponse.create(bill), HttpStatus.OK)).orElseGet(() ->
-                new ResponseEntity<>(HttpStatus.NOT_FOUND)
-        );
+                withValidators(new ResourceVersion(bill.getVersion(), bill.getModifiedDate())).body(BillResponse.create(bill)))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -109,4 +244,51 @@ public class BillController {
         return new ResponseEntity<>(BillResponse.create(bill), HttpStatus.CREATED);
     }
 
+    /**
+     * Creates all the bills in the request in a single transaction, inserted as JDBC batches.
+     * If the batch is empty or larger than the allowed size, it returns a ResponseEntity with a status of BAD_REQUEST.
+     *
+     * @param  billRequests  the BillRequest objects containing the details of the bills to be created
+     * @return               a ResponseEntity containing the created BillResponse objects and a status code of CREATED
+     */
+    @PostMapping(path = "/batch")
+    public ResponseEntity<List<BillResponse>> createBills(@RequestBody List<BillRequest> billRequests) {
+        if (billRequests.isEmpty() || billRequests.size() > MAX_BATCH_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<Bill> bills = billService.createAll(billRequests.stream().map(BillRequest::toBill).toList());
+        return new ResponseEntity<>(bills.stream().map(BillResponse::create).toList(), HttpStatus.CREATED);
+    }
+
+    /**
+     * Sets the ETag and Last-Modified headers of a 200 response. Spring still answers a matching
+     * If-Modified-Since with NOT_MODIFIED from these headers, without serializing the body.
+     */
+    private static ResponseEntity.BodyBuilder withValidators(ResourceVersion version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().eTag(version.etag());
+        if (version.lastModified() != null) {
+            builder.lastModified(version.lastModified());
+        }
+        return builder;
+    }
+
+    private static <T> ResponseEntity<T> notModified(ResourceVersion version) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version.etag());
+        if (version.lastModified() != null) {
+            builder.lastModified(version.lastModified());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Weak comparison, as required for If-None-Match.
+     */
+    private static boolean matches(String ifNoneMatch, ResourceVersion version) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        ETag current = ETag.create(version.etag());
+        return ETag.parse(ifNoneMatch).stream().anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+    }
+
  }
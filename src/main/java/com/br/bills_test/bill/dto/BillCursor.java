@@ -0,0 +1,52 @@
+package com.br.bills_test.bill.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Position of a bill in the (expiringDate, id) ordering used by keyset pagination.
+ * Clients only see it as an opaque URL-safe token.
+ */
+public record BillCursor(
+        LocalDate expiringDate,
+        Long id
+) {
+    private static final char SEPARATOR = ':';
+
+    public static BillCursor of(BillResponse bill) {
+        return new BillCursor(bill.expiringDate(), bill.id());
+    }
+
+    /**
+     * Encodes the cursor as an opaque token.
+     *
+     * @return the URL-safe Base64 token
+     */
+    public String encode() {
+        String raw = expiringDate.toEpochDay() + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param  token  the opaque token
+     * @return        the decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static BillCursor decode(String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Malformed cursor: " + token);
+        }
+        try {
+            return new BillCursor(LocalDate.ofEpochDay(Long.parseLong(raw.substring(0, separator))),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (NumberFormatException | DateTimeException e) {
+            throw new IllegalArgumentException("Malformed cursor: " + token, e);
+        }
+    }
+}
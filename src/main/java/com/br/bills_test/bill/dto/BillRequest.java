@@ -1,15 +1,15 @@
 package com.br.bills_test.bill.dto;
 
 import com.br.bills_test.bill.entity.Bill;
-import com.fasterxml.jackson.annotation.JsonFormat;
-import com.opencsv.bean.CsvDate;
+import com.opencsv.bean.CsvBindByName;
+import com.opencsv.bean.CsvCustomBindByName;
 import jakarta.annotation.Nullable;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
 
 @Data
 @NoArgsConstructor
@@ -19,15 +19,15 @@ public class BillRequest {
     public Bill toBill() {
         return new Bill(expiringDate, paymentDate, amount, description);
     }
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
-    @CsvDate("dd-MM-yyyy")
-    Date expiringDate;
+    @CsvCustomBindByName(converter = LocalDateCsvConverter.class)
+    LocalDate expiringDate;
     @Nullable
-    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
-    @CsvDate("dd-MM-yyyy")
-    Date paymentDate;
+    @CsvCustomBindByName(converter = LocalDateCsvConverter.class)
+    LocalDate paymentDate;
     @Nullable
+    @CsvBindByName
     BigDecimal amount;
     @Nullable
+    @CsvBindByName
     String description;
 }
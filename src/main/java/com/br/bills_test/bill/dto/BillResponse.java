@@ -2,22 +2,19 @@ package com.br.bills_test.bill.dto;
 
 import com.br.bills_test.bill.BillStatus;
 import com.br.bills_test.bill.entity.Bill;
-import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.annotation.Nullable;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public record BillResponse(
         Long id,
         @Nullable
-        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
-        Date expiringDate,
+        LocalDate expiringDate,
         @Nullable
-        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy")
-        Date paymentDate,
+        LocalDate paymentDate,
         BigDecimal amount,
         String description,
         BillStatus status
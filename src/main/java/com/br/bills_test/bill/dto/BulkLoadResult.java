@@ -0,0 +1,9 @@
+package com.br.bills_test.bill.dto;
+
+public record BulkLoadResult(
+        long rowsStaged,
+        long rowsInserted,
+        Long firstId,
+        Long lastId
+) {
+}
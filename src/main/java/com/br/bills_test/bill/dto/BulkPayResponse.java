@@ -0,0 +1,10 @@
+package com.br.bills_test.bill.dto;
+
+import java.util.List;
+
+public record BulkPayResponse(
+        List<Long> paid,
+        List<Long> alreadyPaid,
+        List<Long> notFound
+) {
+}
@@ -0,0 +1,13 @@
+package com.br.bills_test.bill.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String nextCursor
+) {
+}
@@ -0,0 +1,35 @@
+package com.br.bills_test.bill.dto;
+
+import com.br.bills_test.config.DateFormats;
+import com.opencsv.bean.AbstractBeanField;
+import com.opencsv.exceptions.CsvDataTypeMismatchException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Binds dd-MM-yyyy CSV columns to LocalDate with the shared {@link DateFormats#FORMATTER}.
+ * Blank values map to null.
+ */
+public class LocalDateCsvConverter<T, I> extends AbstractBeanField<T, I> {
+
+    @Override
+    protected Object convert(String value) throws CsvDataTypeMismatchException {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim(), DateFormats.FORMATTER);
+        } catch (DateTimeParseException e) {
+            CsvDataTypeMismatchException exception =
+                    new CsvDataTypeMismatchException(value, LocalDate.class, e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        }
+    }
+
+    @Override
+    protected String convertToWrite(Object value) {
+        return value == null ? "" : DateFormats.FORMATTER.format((LocalDate) value);
+    }
+}
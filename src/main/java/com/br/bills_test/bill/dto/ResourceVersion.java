@@ -0,0 +1,14 @@
+package com.br.bills_test.bill.dto;
+
+import java.time.Instant;
+
+/**
+ * The validators of a bill or of a bill listing: a version bumped on every change and the time
+ * of that change.
+ */
+public record ResourceVersion(long version, Instant lastModified) {
+
+    public String etag() {
+        return "\"" + version + "\"";
+    }
+}
@@ -0,0 +1,77 @@
+package com.br.bills_test.bill.entity;
+
+import com.br.bills_test.bill.BillStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A paid bill moved out of BILLS by the archiver. Rows are only ever written by the archiving
+ * statement, so the entity is read-only.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "BILLS_ARCHIVE")
+@NoArgsConstructor
+public class ArchivedBill {
+
+    @Id
+    private Long id;
+
+    @Column(name = "data_vencimento")
+    private LocalDate expiringDate;
+
+    @Column(name = "data_pagamento")
+    private LocalDate paymentDate;
+
+    @Column(name = "valor")
+    private BigDecimal amount;
+
+    @Column(name = "descricao")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "situacao")
+    private BillStatus status;
+
+    @Column(name = "data_inclusao")
+    private Instant creationDate;
+
+    @Column(name = "data_arquivamento")
+    private Instant archivedDate;
+
+    @Column(name = "fingerprint")
+    private String fingerprint;
+
+    @Column(name = "versao")
+    private long version;
+
+    @Column(name = "data_alteracao")
+    private Instant modifiedDate;
+
+    /**
+     * Returns the bill as it was before it was archived.
+     *
+     * @return a new, detached Bill with the same id and data
+     */
+    public Bill toBill() {
+        Bill bill = new Bill();
+        bill.setId(id);
+        bill.setExpiringDate(expiringDate);
+        bill.setPaymentDate(paymentDate);
+        bill.setAmount(amount);
+        bill.setDescription(description);
+        bill.setStatus(status);
+        bill.setCreationDate(creationDate);
+        bill.setFingerprint(fingerprint);
+        bill.setVersion(version);
+        bill.setModifiedDate(modifiedDate);
+        return bill;
+    }
+}
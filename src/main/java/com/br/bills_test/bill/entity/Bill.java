@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.Date;
+import java.time.LocalDate;
 
 @Data
 @Entity
@@ -18,14 +18,15 @@ import java.util.Date;
 public class Bill {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bills_seq")
+    @SequenceGenerator(name = "bills_seq", sequenceName = "bills_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "data_vencimento")
-    private Date expiringDate;
+    private LocalDate expiringDate;
 
     @Column(name = "data_pagamento")
-    private Date paymentDate;
+    private LocalDate paymentDate;
 
     @Column(name = "valor")
     private BigDecimal amount;
@@ -38,7 +39,20 @@ public class Bill {
     private BillStatus status = BillStatus.OPEN;
 
     @Column(name = "data_inclusao")
-    private Date creationDate = Date.from(Instant.now());
+    private Instant creationDate = Instant.now();
+
+    @Column(name = "fingerprint")
+    private String fingerprint;
+
+    /**
+     * Bumped by every write, including the set-based updates that bypass the persistence context,
+     * so it is maintained explicitly rather than with an optimistic lock.
+     */
+    @Column(name = "versao")
+    private long version;
+
+    @Column(name = "data_alteracao")
+    private Instant modifiedDate = creationDate;
 
     public Bill(BillStatus billStatus, BigDecimal bigDecimal) {
         this.status = billStatus;
@@ -48,14 +62,14 @@ public class Bill {
     /**
      * Determines if the given expiration date has passed.
      *
-     * @param  expiringDate  the date to check against the current time
-     * @return                true if the expiration date has passed, false otherwise
+     * @param  expiringDate  the date to check against the current date
+     * @return                true if the expiration date is before today, false otherwise
      */
-    private boolean isExpired(Date expiringDate) {
-        return expiringDate.toInstant().isBefore(Instant.now());
+    private boolean isExpired(LocalDate expiringDate) {
+        return expiringDate.isBefore(LocalDate.now());
     }
 
-    public Bill(Date expiringDate, Date paymentDate, BigDecimal amount, String description) {
+    public Bill(LocalDate expiringDate, LocalDate paymentDate, BigDecimal amount, String description) {
         this.expiringDate = expiringDate;
         this.paymentDate = paymentDate;
         this.amount = amount;
@@ -69,7 +83,7 @@ public class Bill {
      * @param  paymentDate   the payment date of the bill
      * @return                the status of the bill (PAID, EXPIRED, or OPEN)
      */
-    private BillStatus getStatus(Date expiringDate, Date paymentDate) {
+    private BillStatus getStatus(LocalDate expiringDate, LocalDate paymentDate) {
         if (paymentDate != null) {
             return BillStatus.PAID;
         }
@@ -78,16 +92,4 @@ public class Bill {
         }
         return BillStatus.OPEN;
     }
-    /**
-     * Pay the bill by updating the status to PAID and setting the payment date to the current time.
-     *
-     * @throws IllegalStateException if the bill is already paid
-     */
-    public void pay() {
-        if (BillStatus.PAID.equals(this.status)) {
-            throw new IllegalStateException("Bill was already paid");
-        }
-        this.status = BillStatus.PAID;
-        paymentDate = Date.from(Instant.now());
-    }
 }
@@ -0,0 +1,17 @@
+package com.br.bills_test.bill.event;
+
+import com.br.bills_test.bill.BillStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A bill was created.
+ *
+ * @param id           the id of the new bill
+ * @param status       the status it was created with
+ * @param amount       the bill amount
+ * @param paymentDate  the payment date when it was created already paid, otherwise null
+ */
+public record BillCreated(Long id, BillStatus status, BigDecimal amount, LocalDate paymentDate) {
+}
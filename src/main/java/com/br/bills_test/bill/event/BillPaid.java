@@ -0,0 +1,14 @@
+package com.br.bills_test.bill.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * An unpaid bill was paid.
+ *
+ * @param id           the id of the paid bill
+ * @param amount       the bill amount
+ * @param paymentDate  the day it was paid
+ */
+public record BillPaid(Long id, BigDecimal amount, LocalDate paymentDate) {
+}
@@ -0,0 +1,12 @@
+package com.br.bills_test.bill.event;
+
+import com.br.bills_test.bill.BillStatus;
+
+/**
+ * A bill was rewritten.
+ *
+ * @param id      the id of the updated bill
+ * @param status  its status after the update
+ */
+public record BillUpdated(Long id, BillStatus status) {
+}
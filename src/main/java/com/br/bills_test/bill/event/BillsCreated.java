@@ -0,0 +1,14 @@
+package com.br.bills_test.bill.event;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A batch of bills was created in one transaction, by the batch endpoint or one chunk of an import.
+ *
+ * @param ids         the ids of the new bills
+ * @param paidCount   how many of them were created already paid
+ * @param paidAmount  the amount of the bills created already paid
+ */
+public record BillsCreated(List<Long> ids, int paidCount, BigDecimal paidAmount) {
+}
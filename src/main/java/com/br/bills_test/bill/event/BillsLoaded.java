@@ -0,0 +1,14 @@
+package com.br.bills_test.bill.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Bills were bulk loaded in one transaction. Loads can be millions of rows, so unlike
+ * {@link BillsCreated} the event only carries totals.
+ *
+ * @param count       how many bills were created
+ * @param paidCount   how many of them were created already paid
+ * @param paidAmount  the amount of the bills created already paid
+ */
+public record BillsLoaded(long count, long paidCount, BigDecimal paidAmount) {
+}
@@ -0,0 +1,15 @@
+package com.br.bills_test.bill.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A chunk of a bulk payment was paid in one statement. Ids that were already paid or not found are not included.
+ *
+ * @param ids          the ids of the bills paid by this chunk
+ * @param amount       the sum of their amounts
+ * @param paymentDate  the day they were paid
+ */
+public record BillsPaid(List<Long> ids, BigDecimal amount, LocalDate paymentDate) {
+}
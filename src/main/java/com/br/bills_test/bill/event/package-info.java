@@ -0,0 +1,9 @@
+/**
+ * Domain events published by the bill service. They are stored in the Spring Modulith event
+ * publication registry in the same transaction as the change, and delivered to
+ * {@code @ApplicationModuleListener} methods asynchronously after commit.
+ */
+@NamedInterface("events")
+package com.br.bills_test.bill.event;
+
+import org.springframework.modulith.NamedInterface;
@@ -0,0 +1,137 @@
+package com.br.bills_test.bill.expiration;
+
+import com.br.bills_test.bill.change.UnpaidBillsMarker;
+import com.br.bills_test.bill.config.BillCacheConfiguration;
+import com.br.bills_test.bill.repository.BillRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the situacao column accurate by moving OPEN bills past their expiring date to EXPIRED.
+ * Work is done in small set-based batches, each in its own transaction, with a pause in between
+ * so user traffic is not starved. Since expired rows stop matching, an interrupted run simply
+ * resumes on the next schedule.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "bills.expiration.enabled", havingValue = "true", matchIfMissing = true)
+public class BillExpirationSweeper {
+
+    private final BillRepository repository;
+    private final CacheManager cacheManager;
+    private final UnpaidBillsMarker unpaidBillsMarker;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration pause;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Counter expiredRows;
+    private final DistributionSummary rowsPerRun;
+    private final Timer runTimer;
+
+    @Autowired
+    public BillExpirationSweeper(BillRepository repository,
+                                 CacheManager cacheManager,
+                                 UnpaidBillsMarker unpaidBillsMarker,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${bills.expiration.batch-size:1000}") int batchSize,
+                                 @Value("${bills.expiration.max-batches-per-run:1000}") int maxBatchesPerRun,
+                                 @Value("${bills.expiration.pause:50ms}") Duration pause) {
+        this.repository = repository;
+        this.cacheManager = cacheManager;
+        this.unpaidBillsMarker = unpaidBillsMarker;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pause = pause;
+        this.expiredRows = Counter.builder("bills.expiration.rows")
+                .description("Bills moved from OPEN to EXPIRED")
+                .register(meterRegistry);
+        this.rowsPerRun = DistributionSummary.builder("bills.expiration.run.rows")
+                .description("Bills moved from OPEN to EXPIRED per sweeper run")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("bills.expiration.run.duration")
+                .description("Duration of a sweeper run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${bills.expiration.cron:0 */5 * * * *}")
+    public void scheduledSweep() {
+        sweep();
+    }
+
+    /**
+     * Expires OPEN bills in batches until none is left or the per-run batch limit is reached.
+     * Runs are never overlapped within the same instance.
+     *
+     * @return the number of bills moved to EXPIRED
+     */
+    public long sweep() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("Expiration sweep already running, skipping");
+            return 0;
+        }
+        long startedAt = System.nanoTime();
+        long total = 0;
+        int batches = 0;
+        try {
+            LocalDate today = LocalDate.now();
+            int expired;
+            do {
+                expired = repository.expireOpenBills(today, batchSize);
+                total += expired;
+                batches++;
+                expiredRows.increment(expired);
+                if (expired == batchSize && batches < maxBatchesPerRun) {
+                    pauseBetweenBatches();
+                }
+            } while (expired == batchSize && batches < maxBatchesPerRun && !Thread.currentThread().isInterrupted());
+        } finally {
+            if (total > 0) {
+                evictCachedBills();
+                unpaidBillsMarker.changed();
+            }
+            running.set(false);
+            long elapsed = System.nanoTime() - startedAt;
+            rowsPerRun.record(total);
+            runTimer.record(Duration.ofNanos(elapsed));
+            log.info("Expiration sweep moved {} bills to EXPIRED in {} batches ({} ms)",
+                    total, batches, Duration.ofNanos(elapsed).toMillis());
+        }
+        return total;
+    }
+
+    /**
+     * Cached bills may still say OPEN, and the bulk update does not tell which ids changed.
+     */
+    private void evictCachedBills() {
+        Cache cache = cacheManager.getCache(BillCacheConfiguration.BILLS_CACHE);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void pauseBetweenBatches() {
+        if (pause.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(pause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.br.bills_test.bill.index;
+
+import java.util.Arrays;
+
+/**
+ * Amounts in cents per calendar day, stored as running totals so the sum of any day range is
+ * two array reads. Adding to a day shifts every later prefix, which is a few thousand longs for
+ * a decade of history. Not thread-safe; {@link PaidAmountIndex} guards it with a lock.
+ */
+final class DailyPrefixSums {
+
+    /**
+     * Upper bound on the covered span, so a single absurd date cannot allocate a huge array.
+     */
+    static final int MAX_DAYS = 100 * 366;
+
+    private long originDay;
+    private int days;
+    // prefix[i] holds the cents of days [originDay, originDay + i)
+    private long[] prefix = new long[1];
+
+    /**
+     * Adds cents to the total of a day, growing the covered range when needed.
+     *
+     * @param  epochDay  the day, as LocalDate.toEpochDay()
+     * @param  cents     the amount to add, negative to remove
+     * @throws IllegalArgumentException if the day would stretch the range beyond MAX_DAYS
+     */
+    void add(long epochDay, long cents) {
+        if (cents == 0) {
+            return;
+        }
+        cover(epochDay);
+        for (int i = (int) (epochDay - originDay) + 1; i <= days; i++) {
+            prefix[i] += cents;
+        }
+    }
+
+    /**
+     * Sums the cents of the days between startDay and endDay, both inclusive.
+     */
+    long sum(long startDay, long endDay) {
+        long from = Math.max(startDay, originDay);
+        long to = Math.min(endDay, originDay + days - 1);
+        if (days == 0 || from > to) {
+            return 0;
+        }
+        return prefix[(int) (to - originDay) + 1] - prefix[(int) (from - originDay)];
+    }
+
+    long total() {
+        return prefix[days];
+    }
+
+    private void cover(long epochDay) {
+        if (days == 0) {
+            originDay = epochDay;
+            days = 1;
+            prefix = new long[2];
+            return;
+        }
+        long lastDay = originDay + days - 1;
+        long newOrigin = Math.min(originDay, epochDay);
+        long newLast = Math.max(lastDay, epochDay);
+        if (newOrigin == originDay && newLast == lastDay) {
+            return;
+        }
+        if (newLast - newOrigin + 1 > MAX_DAYS) {
+            throw new IllegalArgumentException("Day " + epochDay + " is too far from the indexed range");
+        }
+        int newDays = (int) (newLast - newOrigin + 1);
+        int shift = (int) (originDay - newOrigin);
+        long[] grown = new long[newDays + 1];
+        System.arraycopy(prefix, 0, grown, shift, days + 1);
+        Arrays.fill(grown, shift + days + 1, newDays + 1, prefix[days]);
+        originDay = newOrigin;
+        days = newDays;
+        prefix = grown;
+    }
+}
@@ -0,0 +1,335 @@
+package com.br.bills_test.bill.index;
+
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.entity.Bill;
+import com.br.bills_test.bill.repository.BillArchiveRepository;
+import com.br.bills_test.bill.repository.BillRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory totals of paid amounts per payment day, so a paid amount over any date range is two
+ * array reads instead of a range scan. Built from the live and the archived bills once the application
+ * is ready and kept current by the bill service after each committed write. Writes that bypass the
+ * service, or land while a rebuild is loading, are corrected by the periodic {@link #verify()}.
+ * Until the first build completes, callers fall back to the database.
+ * <p>
+ * The index lives in each application instance and only sees the writes that instance commits.
+ * With several instances, a payment served by another one reaches this index at its next
+ * verification, so totals may lag by up to {@code bills.paid-index.verify-interval}.
+ */
+@Component
+@Slf4j
+public class PaidAmountIndex {
+
+    private final BillRepository repository;
+    private final BillArchiveRepository archiveRepository;
+    private final TransactionTemplate snapshot;
+    private final boolean enabled;
+    private final Counter mismatches;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Days with a recorded write whose transaction has not completed yet, and how many
+    private final Map<Long, Integer> pendingDays = new ConcurrentHashMap<>();
+
+    private volatile Set<Long> touchedDuringCheck;
+
+    private DailyPrefixSums sums = new DailyPrefixSums();
+    private volatile boolean ready;
+
+    @Autowired
+    public PaidAmountIndex(BillRepository repository,
+                           BillArchiveRepository archiveRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${bills.paid-index.enabled:true}") boolean enabled) {
+        this.repository = repository;
+        this.archiveRepository = archiveRepository;
+        // Both tables are read from one snapshot, so bills being archived are counted exactly once.
+        // Not read-only on purpose: a replica may lag behind writes the index has already applied.
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.enabled = enabled;
+        this.mismatches = Counter.builder("bills.paid_index.mismatches")
+                .description("Payment days whose indexed total differed from the database")
+                .register(meterRegistry);
+        Gauge.builder("bills.paid_index.ready", this, index -> index.ready ? 1 : 0)
+                .description("Whether paid totals are answered from the index rather than the database")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces the index with the daily totals currently in the database.
+     */
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        DailyPrefixSums rebuilt = load(loadDailyTotals());
+        lock.writeLock().lock();
+        try {
+            sums = rebuilt != null ? rebuilt : new DailyPrefixSums();
+            ready = rebuilt != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Paid amount index rebuilt in {} ms", (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    /**
+     * Sums the paid amounts between two payment dates, both inclusive.
+     *
+     * @param  startDate  the first payment date
+     * @param  endDate    the last payment date
+     * @return            the total, or empty if the index is not available and the database must answer
+     */
+    public Optional<BigDecimal> getTotalPaid(LocalDate startDate, LocalDate endDate) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(BigDecimal.valueOf(sums.sum(startDate.toEpochDay(), endDate.toEpochDay()), 2));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a newly paid bill to the index once the current transaction commits.
+     *
+     * @param  bill  the bill as stored; ignored unless it is PAID
+     */
+    public void recordPaid(Bill bill) {
+        if (isPaid(bill)) {
+            record(bill.getPaymentDate(), bill.getAmount());
+        }
+    }
+
+    /**
+     * Adds every PAID bill of a batch to the index once the current transaction commits, with
+     * one update per payment day.
+     *
+     * @param  bills  the bills as stored
+     */
+    public void recordAllPaid(List<Bill> bills) {
+        Map<LocalDate, BigDecimal> amountByDay = new HashMap<>();
+        for (Bill bill : bills) {
+            if (isPaid(bill)) {
+                amountByDay.merge(bill.getPaymentDate(), bill.getAmount(), BigDecimal::add);
+            }
+        }
+        amountByDay.forEach(this::record);
+    }
+
+    /**
+     * Replaces the contribution of a bill that was rewritten, once the current transaction commits.
+     *
+     * @param  previous  the bill before the write
+     * @param  current   the bill after the write
+     */
+    public void recordUpdated(Bill previous, Bill current) {
+        if (isPaid(previous)) {
+            record(previous.getPaymentDate(), previous.getAmount().negate());
+        }
+        recordPaid(current);
+    }
+
+    /**
+     * Adds an amount to a payment day once the current transaction commits.
+     *
+     * @param  paymentDate  the payment day
+     * @param  amount       the amount, negative to remove it
+     */
+    public void record(LocalDate paymentDate, BigDecimal amount) {
+        if (!enabled || paymentDate == null || amount == null || amount.signum() == 0) {
+            return;
+        }
+        long day = paymentDate.toEpochDay();
+        long cents = toCents(amount);
+        pendingDays.merge(day, 1, Integer::sum);
+        Set<Long> touched = touchedDuringCheck;
+        if (touched != null) {
+            touched.add(day);
+        }
+        afterCommit(() -> apply(day, cents),
+                () -> pendingDays.computeIfPresent(day, (pendingDay, writes) -> writes == 1 ? null : writes - 1));
+    }
+
+    /**
+     * Compares every indexed day with the database and rebuilds the index if any day differs.
+     * An index that is not ready, because its first build or a later write went out of range,
+     * is rebuilt instead. Days written through the index while the check runs, or by a transaction still completing
+     * when it starts, are skipped: the database read and the index may each see such a write
+     * without the other. They are compared again by a later check.
+     *
+     * @return the number of days that differed
+     */
+    @Scheduled(fixedDelayString = "${bills.paid-index.verify-interval:10m}",
+            initialDelayString = "${bills.paid-index.verify-interval:10m}")
+    public int verify() {
+        if (!enabled) {
+            return 0;
+        }
+        if (!ready) {
+            log.info("Paid amount index is not ready, rebuilding");
+            rebuild();
+            return 0;
+        }
+        Set<Long> touched = ConcurrentHashMap.newKeySet();
+        touchedDuringCheck = touched;
+        touched.addAll(pendingDays.keySet());
+        int differences = 0;
+        try {
+            Map<LocalDate, BigDecimal> dailyTotals = loadDailyTotals();
+            lock.readLock().lock();
+            try {
+                // writes recorded from here on cannot be applied before the comparison ends
+                Set<Long> skipped = Set.copyOf(touched);
+                long expectedTotal = 0;
+                for (Map.Entry<LocalDate, BigDecimal> dailyTotal : dailyTotals.entrySet()) {
+                    long day = dailyTotal.getKey().toEpochDay();
+                    if (skipped.contains(day)) {
+                        continue;
+                    }
+                    long expected = toCents(dailyTotal.getValue());
+                    expectedTotal += expected;
+                    if (sums.sum(day, day) != expected) {
+                        differences++;
+                    }
+                }
+                // days present in the index but gone from the database only show up in the grand total
+                long indexedTotal = sums.total();
+                for (long day : skipped) {
+                    indexedTotal -= sums.sum(day, day);
+                }
+                if (differences == 0 && indexedTotal != expectedTotal) {
+                    differences++;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        } finally {
+            touchedDuringCheck = null;
+        }
+        if (differences > 0) {
+            log.warn("Paid amount index differed from the database on {} days, rebuilding", differences);
+            mismatches.increment(differences);
+            rebuild();
+        }
+        return differences;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private void apply(long day, long cents) {
+        lock.writeLock().lock();
+        try {
+            sums.add(day, cents);
+        } catch (IllegalArgumentException e) {
+            log.warn("Paid amount index disabled until the next verification rebuilds it: {}", e.getMessage());
+            ready = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Paid amounts per payment day, live and archived bills added together.
+     */
+    private Map<LocalDate, BigDecimal> loadDailyTotals() {
+        Map<LocalDate, BigDecimal> dailyTotals = snapshot.execute(status -> {
+            Map<LocalDate, BigDecimal> totals = new HashMap<>();
+            for (BillRepository.DailyTotal dailyTotal : repository.sumAmountByStatusPerPaymentDate(BillStatus.PAID)) {
+                totals.merge(dailyTotal.getPaymentDate(), dailyTotal.getTotal(), BigDecimal::add);
+            }
+            for (BillRepository.DailyTotal dailyTotal : archiveRepository.sumAmountPerPaymentDate()) {
+                totals.merge(dailyTotal.getPaymentDate(), dailyTotal.getTotal(), BigDecimal::add);
+            }
+            return totals;
+        });
+        return dailyTotals != null ? dailyTotals : Map.of();
+    }
+
+    private static DailyPrefixSums load(Map<LocalDate, BigDecimal> dailyTotals) {
+        DailyPrefixSums loaded = new DailyPrefixSums();
+        try {
+            for (Map.Entry<LocalDate, BigDecimal> dailyTotal : dailyTotals.entrySet()) {
+                loaded.add(dailyTotal.getKey().toEpochDay(), toCents(dailyTotal.getValue()));
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Paid amount index not built, falling back to the database: {}", e.getMessage());
+            return null;
+        }
+        return loaded;
+    }
+
+    private static boolean isPaid(Bill bill) {
+        return bill != null && bill.getStatus() == BillStatus.PAID
+                && bill.getPaymentDate() != null && bill.getAmount() != null;
+    }
+
+    /**
+     * Converts an amount to cents the way the DECIMAL(10, 2) column stores it.
+     */
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Runs the action once the current transaction commits, and the completion once it ends
+     * either way. Both run right away outside a transaction.
+     */
+    private static void afterCommit(Runnable action, Runnable completion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    completion.run();
+                }
+            });
+        } else {
+            try {
+                action.run();
+            } finally {
+                completion.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.br.bills_test.bill.metrics;
+
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.event.BillCreated;
+import com.br.bills_test.bill.event.BillPaid;
+import com.br.bills_test.bill.event.BillsCreated;
+import com.br.bills_test.bill.event.BillsLoaded;
+import com.br.bills_test.bill.event.BillsPaid;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.modulith.events.ApplicationModuleListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Counts created and paid bills and the amounts paid from the bill events, after the writes
+ * commit and off the request thread.
+ */
+@Component
+public class BillEventMetrics {
+
+    private final Counter created;
+    private final Counter paid;
+    private final Counter paidAmount;
+
+    @Autowired
+    public BillEventMetrics(MeterRegistry meterRegistry) {
+        this.created = Counter.builder("bills.events.created")
+                .description("Bills created")
+                .register(meterRegistry);
+        this.paid = Counter.builder("bills.events.paid")
+                .description("Bills paid, including those created already paid")
+                .register(meterRegistry);
+        this.paidAmount = Counter.builder("bills.events.paid.amount")
+                .description("Amount of the bills paid")
+                .register(meterRegistry);
+    }
+
+    @ApplicationModuleListener
+    public void on(BillCreated event) {
+        created.increment();
+        if (event.status() == BillStatus.PAID) {
+            recordPaid(1, event.amount());
+        }
+    }
+
+    @ApplicationModuleListener
+    public void on(BillsCreated event) {
+        created.increment(event.ids().size());
+        recordPaid(event.paidCount(), event.paidAmount());
+    }
+
+    @ApplicationModuleListener
+    public void on(BillsLoaded event) {
+        created.increment(event.count());
+        recordPaid(event.paidCount(), event.paidAmount());
+    }
+
+    @ApplicationModuleListener
+    public void on(BillPaid event) {
+        recordPaid(1, event.amount());
+    }
+
+    @ApplicationModuleListener
+    public void on(BillsPaid event) {
+        recordPaid(event.ids().size(), event.amount());
+    }
+
+    private void recordPaid(long count, BigDecimal amount) {
+        paid.increment(count);
+        if (amount != null) {
+            paidAmount.increment(amount.doubleValue());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.br.bills_test.bill.metrics;
+
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.repository.BillRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the number of bills per status in BILLS; archived bills are not counted. Counting
+ * touches the whole table, so it runs on a schedule and the gauges only read the last snapshot;
+ * scrapes never hit the database.
+ */
+@Component
+@Slf4j
+public class BillStatusMetrics {
+
+    private final BillRepository repository;
+    private final Map<BillStatus, AtomicLong> counts = new EnumMap<>(BillStatus.class);
+
+    @Autowired
+    public BillStatusMetrics(BillRepository repository, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        for (BillStatus status : BillStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            counts.put(status, count);
+            Gauge.builder("bills.status.count", count, AtomicLong::get)
+                    .description("Bills per status in the live table, as of the last refresh")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${bills.metrics.status-refresh:60s}")
+    public void refresh() {
+        Map<BillStatus, Long> totals = new EnumMap<>(BillStatus.class);
+        for (BillRepository.StatusCount statusCount : repository.countByStatus()) {
+            if (statusCount.getStatus() != null) {
+                totals.put(statusCount.getStatus(), statusCount.getTotal());
+            }
+        }
+        counts.forEach((status, count) -> count.set(totals.getOrDefault(status, 0L)));
+        log.debug("Refreshed bill status counts: {}", totals);
+    }
+}
@@ -0,0 +1,59 @@
+package com.br.bills_test.bill.repository;
+
+import com.br.bills_test.bill.dto.ResourceVersion;
+import com.br.bills_test.bill.entity.ArchivedBill;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BillArchiveRepository extends JpaRepository<ArchivedBill, Long> {
+
+    /**
+     * Moves up to limit PAID bills paid before the cutoff from BILLS to BILLS_ARCHIVE, oldest first.
+     * The delete and the insert are one statement, so a bill is always in exactly one of the tables.
+     * Rows locked by concurrent writes are skipped and picked up by a later batch.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "WITH moved AS (" +
+            "DELETE FROM bills WHERE id IN (" +
+            "SELECT id FROM bills WHERE situacao = 'PAID' AND data_pagamento < :cutoff " +
+            "ORDER BY data_pagamento LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, valor, descricao, data_vencimento, data_pagamento, status, situacao, data_inclusao, fingerprint, versao, data_alteracao) " +
+            "INSERT INTO bills_archive (id, valor, descricao, data_vencimento, data_pagamento, status, situacao, data_inclusao, fingerprint, versao, data_alteracao) " +
+            "SELECT id, valor, descricao, data_vencimento, data_pagamento, status, situacao, data_inclusao, fingerprint, versao, data_alteracao FROM moved",
+            nativeQuery = true)
+    int archivePaidBefore(@Param("cutoff") LocalDate cutoff, @Param("limit") int limit);
+
+    @Query("select a.id from ArchivedBill a where a.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Runs read-write so it stays on the primary, like {@link BillRepository#findVersionById(Long)}.
+     */
+    @Transactional
+    @Query("select new com.br.bills_test.bill.dto.ResourceVersion(a.version, a.modifiedDate) " +
+            "from ArchivedBill a where a.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select a.fingerprint from ArchivedBill a where a.fingerprint in :fingerprints")
+    List<String> findExistingFingerprints(@Param("fingerprints") Collection<String> fingerprints);
+
+    @Query("select coalesce(sum(a.amount), 0) from ArchivedBill a " +
+            "where a.paymentDate between :startDate and :endDate")
+    BigDecimal sumAmountByPaymentDateBetween(@Param("startDate") LocalDate startDate,
+                                             @Param("endDate") LocalDate endDate);
+
+    @Query("select a.paymentDate as paymentDate, sum(a.amount) as total from ArchivedBill a group by a.paymentDate")
+    List<BillRepository.DailyTotal> sumAmountPerPaymentDate();
+}
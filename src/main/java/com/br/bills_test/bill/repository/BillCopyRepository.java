@@ -0,0 +1,168 @@
+package com.br.bills_test.bill.repository;
+
+import com.br.bills_test.bill.entity.Bill;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Bulk loads bills with PostgreSQL COPY, bypassing the persistence context. Rows are streamed into
+ * a temporary staging table that lives until the end of the transaction, then moved into BILLS by
+ * a single statement. Both steps must run in the same transaction.
+ */
+@Repository
+public class BillCopyRepository {
+
+    static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String CREATE_STAGING = "CREATE TEMPORARY TABLE bills_staging (" +
+            "line BIGINT GENERATED ALWAYS AS IDENTITY, " +
+            "data_vencimento DATE, " +
+            "data_pagamento DATE, " +
+            "valor DECIMAL(10, 2), " +
+            "descricao TEXT, " +
+            "fingerprint VARCHAR(64)) ON COMMIT DROP";
+
+    private static final String COPY_STAGING = "COPY bills_staging " +
+            "(data_vencimento, data_pagamento, valor, descricao, fingerprint) FROM STDIN WITH (FORMAT csv)";
+
+    /**
+     * Status follows Bill#getStatus: paid when there is a payment date, expired when the expiring
+     * date is before today, open otherwise. Rows whose fingerprint is already stored, live or
+     * archived, or repeated earlier in the file are skipped.
+     */
+    private static final String MERGE_STAGING = "WITH merged AS (" +
+            "INSERT INTO bills (data_vencimento, data_pagamento, valor, descricao, situacao, data_inclusao, fingerprint) " +
+            "SELECT s.data_vencimento, s.data_pagamento, s.valor, s.descricao, " +
+            "CASE WHEN s.data_pagamento IS NOT NULL THEN 'PAID' " +
+            "WHEN s.data_vencimento < CURRENT_DATE THEN 'EXPIRED' " +
+            "ELSE 'OPEN' END, " +
+            "CURRENT_TIMESTAMP, s.fingerprint " +
+            "FROM bills_staging s " +
+            "WHERE NOT EXISTS (SELECT 1 FROM bills_archive a WHERE a.fingerprint = s.fingerprint) " +
+            "ORDER BY s.line " +
+            "ON CONFLICT (fingerprint) WHERE fingerprint IS NOT NULL DO NOTHING " +
+            "RETURNING id, valor, data_pagamento) " +
+            "SELECT data_pagamento, count(*) AS bills, coalesce(sum(valor), 0) AS amount, " +
+            "min(id) AS first_id, max(id) AS last_id " +
+            "FROM merged GROUP BY data_pagamento";
+
+    /**
+     * Bills inserted by a merge that share a payment date, null for the unpaid ones.
+     */
+    public record MergedDay(LocalDate paymentDate, long bills, BigDecimal amount, long firstId, long lastId) {
+    }
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public BillCopyRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Creates the staging table and streams the given bills into it with a single COPY.
+     * The bills are read lazily, so the whole input is never held in memory.
+     *
+     * @param  bills  the bills to stage, with their fingerprint set
+     * @return        the number of staged rows
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long copyToStaging(Iterator<Bill> bills) {
+        jdbcTemplate.execute(CREATE_STAGING);
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        PGCopyOutputStream copy = null;
+        try {
+            copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class), COPY_STAGING, COPY_BUFFER_SIZE);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), COPY_BUFFER_SIZE);
+            while (bills.hasNext()) {
+                writeRow(writer, bills.next());
+            }
+            writer.flush();
+            return copy.endCopy();
+        } catch (SQLException e) {
+            throw jdbcTemplate.getExceptionTranslator().translate("COPY bills_staging", COPY_STAGING, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            cancelIfActive(copy);
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Moves the staged rows into BILLS in one statement.
+     *
+     * @return the inserted bills grouped by payment date
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<MergedDay> mergeStaged() {
+        return jdbcTemplate.query(MERGE_STAGING, (rs, rowNum) -> new MergedDay(
+                rs.getObject("data_pagamento", LocalDate.class),
+                rs.getLong("bills"),
+                rs.getBigDecimal("amount"),
+                rs.getLong("first_id"),
+                rs.getLong("last_id")));
+    }
+
+    /**
+     * Writes one bill as a CSV line. Nulls are left unquoted, which COPY reads as NULL, while
+     * descriptions are always quoted so an empty one stays an empty string.
+     */
+    static void writeRow(Writer writer, Bill bill) throws IOException {
+        if (bill.getExpiringDate() != null) {
+            writer.write(bill.getExpiringDate().toString());
+        }
+        writer.write(',');
+        if (bill.getPaymentDate() != null) {
+            writer.write(bill.getPaymentDate().toString());
+        }
+        writer.write(',');
+        if (bill.getAmount() != null) {
+            writer.write(bill.getAmount().toPlainString());
+        }
+        writer.write(',');
+        if (bill.getDescription() != null) {
+            writer.write('"');
+            writer.write(bill.getDescription().replace("\"", "\"\""));
+            writer.write('"');
+        }
+        writer.write(',');
+        if (bill.getFingerprint() != null) {
+            writer.write(bill.getFingerprint());
+        }
+        writer.write('\n');
+    }
+
+    private static void cancelIfActive(PGCopyOutputStream copy) {
+        if (copy == null || !copy.isActive()) {
+            return;
+        }
+        try {
+            copy.cancelCopy();
+        } catch (SQLException e) {
+            // the transaction is rolled back anyway
+        }
+    }
+}
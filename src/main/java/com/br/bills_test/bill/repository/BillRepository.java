@@ -1,18 +1,242 @@
 package com.br.bills_test.bill.repository;
 
 import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.bill.dto.ResourceVersion;
 import com.br.bills_test.bill.entity.Bill;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
-import java.util.Date;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BillRepository extends PagingAndSortingRepository<Bill, Long>, JpaRepository<Bill, Long> {
-    Page<Bill> findByStatusNot(BillStatus status, Pageable pageable);
-    List<Bill> findByStatusAndPaymentDateBetween(BillStatus status, Date startDate, Date endDate);
+
+    interface StatusCount {
+        BillStatus getStatus();
+        long getTotal();
+    }
+
+    interface DailyTotal {
+        LocalDate getPaymentDate();
+        BigDecimal getTotal();
+    }
+
+    interface PaidBill {
+        Long getId();
+        BigDecimal getAmount();
+    }
+
+    /**
+     * A bill as written by a single-statement update, with the paid state it had before.
+     */
+    interface UpdatedBill {
+        Long getId();
+        LocalDate getExpiringDate();
+        LocalDate getPaymentDate();
+        BigDecimal getAmount();
+        String getDescription();
+        BillStatus getStatus();
+        Instant getCreationDate();
+        String getFingerprint();
+        long getVersion();
+        Instant getModifiedDate();
+        BillStatus getPreviousStatus();
+        LocalDate getPreviousPaymentDate();
+        BigDecimal getPreviousAmount();
+
+        default Bill toBill() {
+            Bill bill = new Bill(getStatus(), getAmount());
+            bill.setId(getId());
+            bill.setExpiringDate(getExpiringDate());
+            bill.setPaymentDate(getPaymentDate());
+            bill.setDescription(getDescription());
+            bill.setCreationDate(getCreationDate());
+            bill.setFingerprint(getFingerprint());
+            bill.setVersion(getVersion());
+            bill.setModifiedDate(getModifiedDate());
+            return bill;
+        }
+
+        default Bill toPreviousBill() {
+            Bill bill = new Bill(getPreviousStatus(), getPreviousAmount());
+            bill.setId(getId());
+            bill.setPaymentDate(getPreviousPaymentDate());
+            return bill;
+        }
+    }
+
+    // The previous row is read and locked by the same statement, SET expressions see the old values.
+    // Aliases are quoted so PostgreSQL keeps their case for the UpdatedBill projection.
+    String UPDATE_FROM_PREVIOUS = "versao = b.versao + 1, data_alteracao = CURRENT_TIMESTAMP " +
+            "FROM (SELECT id, valor, data_pagamento, situacao FROM bills WHERE id = :id FOR UPDATE) previous " +
+            "WHERE b.id = previous.id " +
+            "RETURNING b.id AS \"id\", b.data_vencimento AS \"expiringDate\", b.data_pagamento AS \"paymentDate\", " +
+            "b.valor AS \"amount\", b.descricao AS \"description\", b.situacao AS \"status\", b.data_inclusao AS \"creationDate\", " +
+            "b.fingerprint AS \"fingerprint\", b.versao AS \"version\", b.data_alteracao AS \"modifiedDate\", " +
+            "previous.situacao AS \"previousStatus\", previous.data_pagamento AS \"previousPaymentDate\", " +
+            "previous.valor AS \"previousAmount\"";
+
+    /**
+     * Reads a page of unpaid bills straight into BillResponse rows, without managed entities.
+     * PAID is a literal so the planner can match the partial keyset index.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "select new com.br.bills_test.bill.dto.BillResponse(" +
+            "b.id, b.expiringDate, b.paymentDate, b.amount, b.description, b.status) " +
+            "from Bill b where b.status <> com.br.bills_test.bill.BillStatus.PAID",
+            countQuery = "select count(b) from Bill b where b.status <> com.br.bills_test.bill.BillStatus.PAID")
+    Page<BillResponse> findUnpaid(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.br.bills_test.bill.dto.BillResponse(" +
+            "b.id, b.expiringDate, b.paymentDate, b.amount, b.description, b.status) " +
+            "from Bill b where b.status <> com.br.bills_test.bill.BillStatus.PAID " +
+            "order by b.expiringDate, b.id")
+    List<BillResponse> findFirstUnpaid(Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.br.bills_test.bill.dto.BillResponse(" +
+            "b.id, b.expiringDate, b.paymentDate, b.amount, b.description, b.status) " +
+            "from Bill b where b.status <> com.br.bills_test.bill.BillStatus.PAID " +
+            "and (b.expiringDate, b.id) > (:expiringDate, :id) " +
+            "order by b.expiringDate, b.id")
+    List<BillResponse> findUnpaidAfter(@Param("expiringDate") LocalDate expiringDate,
+                                       @Param("id") Long id,
+                                       Limit limit);
+
+    @Query("select coalesce(sum(b.amount), 0) from Bill b " +
+            "where b.status = :status and b.paymentDate between :startDate and :endDate")
+    BigDecimal sumAmountByStatusAndPaymentDateBetween(@Param("status") BillStatus status,
+                                                      @Param("startDate") LocalDate startDate,
+                                                      @Param("endDate") LocalDate endDate);
+
+    /**
+     * Marks the bill as PAID only if it is not paid yet, returning the updated row.
+     * The condition and the write are a single statement, so concurrent calls have exactly one winner.
+     */
+    @Query(value = "UPDATE bills SET situacao = 'PAID', data_pagamento = :paymentDate, " +
+            "versao = versao + 1, data_alteracao = CURRENT_TIMESTAMP " +
+            "WHERE id = :id AND situacao <> 'PAID' RETURNING *", nativeQuery = true)
+    Optional<Bill> payIfUnpaid(@Param("id") Long id, @Param("paymentDate") LocalDate paymentDate);
+
+    /**
+     * Marks every not yet paid bill in the given ids as PAID in a single statement.
+     * Runs as a query rather than a modifying statement so PostgreSQL can return the updated ids and amounts.
+     */
+    @Query(value = "UPDATE bills SET situacao = 'PAID', data_pagamento = :paymentDate, " +
+            "versao = versao + 1, data_alteracao = CURRENT_TIMESTAMP " +
+            "WHERE id IN (:ids) AND situacao <> 'PAID' RETURNING id, valor AS amount", nativeQuery = true)
+    List<PaidBill> payAllUnpaid(@Param("ids") Collection<Long> ids, @Param("paymentDate") LocalDate paymentDate);
+
+    /**
+     * Rewrites the dates, amount and description of a bill in a single statement, recomputing its
+     * status the same way Bill does. The creation date and fingerprint are left untouched.
+     * Returns nothing if the bill does not exist.
+     */
+    @Query(value = "UPDATE bills b SET data_vencimento = CAST(:expiringDate AS date), " +
+            "data_pagamento = CAST(:paymentDate AS date), valor = CAST(:amount AS numeric), " +
+            "descricao = CAST(:description AS varchar), " +
+            "situacao = CASE WHEN CAST(:paymentDate AS date) IS NOT NULL THEN 'PAID' " +
+            "WHEN CAST(:expiringDate AS date) < CURRENT_DATE THEN 'EXPIRED' ELSE 'OPEN' END, " +
+            UPDATE_FROM_PREVIOUS, nativeQuery = true)
+    Optional<UpdatedBill> replace(@Param("id") Long id,
+                                  @Param("expiringDate") LocalDate expiringDate,
+                                  @Param("paymentDate") LocalDate paymentDate,
+                                  @Param("amount") BigDecimal amount,
+                                  @Param("description") String description);
+
+    /**
+     * Changes only the given non-null fields of a bill in a single statement. The status is
+     * recomputed only when one of the dates is given. Returns nothing if the bill does not exist.
+     */
+    @Query(value = "UPDATE bills b SET " +
+            "data_vencimento = COALESCE(CAST(:expiringDate AS date), b.data_vencimento), " +
+            "data_pagamento = COALESCE(CAST(:paymentDate AS date), b.data_pagamento), " +
+            "valor = COALESCE(CAST(:amount AS numeric), b.valor), " +
+            "descricao = COALESCE(CAST(:description AS varchar), b.descricao), " +
+            "situacao = CASE WHEN CAST(:expiringDate AS date) IS NULL AND CAST(:paymentDate AS date) IS NULL THEN b.situacao " +
+            "WHEN COALESCE(CAST(:paymentDate AS date), b.data_pagamento) IS NOT NULL THEN 'PAID' " +
+            "WHEN COALESCE(CAST(:expiringDate AS date), b.data_vencimento) < CURRENT_DATE THEN 'EXPIRED' ELSE 'OPEN' END, " +
+            UPDATE_FROM_PREVIOUS, nativeQuery = true)
+    Optional<UpdatedBill> patch(@Param("id") Long id,
+                                @Param("expiringDate") LocalDate expiringDate,
+                                @Param("paymentDate") LocalDate paymentDate,
+                                @Param("amount") BigDecimal amount,
+                                @Param("description") String description);
+
+    @Query("select b.id from Bill b where b.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reads only the validators of a bill, so a conditional GET that matches never loads the entity.
+     * Runs read-write so it stays on the primary, a replica could still hold validators a write replaced.
+     */
+    @Transactional
+    @Query("select new com.br.bills_test.bill.dto.ResourceVersion(b.version, b.modifiedDate) " +
+            "from Bill b where b.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select b.fingerprint from Bill b where b.fingerprint in :fingerprints")
+    List<String> findExistingFingerprints(@Param("fingerprints") Collection<String> fingerprints);
+
+    /**
+     * Moves up to limit OPEN bills whose expiring date is before today to EXPIRED, oldest first.
+     * Rows locked by concurrent payments are skipped and picked up by a later batch.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE bills SET situacao = 'EXPIRED', versao = versao + 1, data_alteracao = CURRENT_TIMESTAMP " +
+            "WHERE situacao = 'OPEN' AND id IN (" +
+            "SELECT id FROM bills WHERE situacao = 'OPEN' AND data_vencimento < :today " +
+            "ORDER BY data_vencimento LIMIT :limit FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int expireOpenBills(@Param("today") LocalDate today, @Param("limit") int limit);
+
+    @Query("select b.status as status, count(b) as total from Bill b group by b.status")
+    List<StatusCount> countByStatus();
+
+    @Query("select b.paymentDate as paymentDate, sum(b.amount) as total from Bill b " +
+            "where b.status = :status and b.paymentDate is not null group by b.paymentDate")
+    List<DailyTotal> sumAmountByStatusPerPaymentDate(@Param("status") BillStatus status);
+
+    /**
+     * Streams bills expiring in the given range straight into BillResponse rows, without managed
+     * entities. Must be consumed inside a transaction so the driver can use a server-side cursor.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.br.bills_test.bill.dto.BillResponse(" +
+            "b.id, b.expiringDate, b.paymentDate, b.amount, b.description, b.status) " +
+            "from Bill b where b.expiringDate between :startDate and :endDate")
+    Stream<BillResponse> streamForExport(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.br.bills_test.bill.dto.BillResponse(" +
+            "b.id, b.expiringDate, b.paymentDate, b.amount, b.description, b.status) " +
+            "from Bill b where b.status = :status and b.expiringDate between :startDate and :endDate")
+    Stream<BillResponse> streamForExport(@Param("status") BillStatus status,
+                                         @Param("startDate") LocalDate startDate,
+                                         @Param("endDate") LocalDate endDate);
 }
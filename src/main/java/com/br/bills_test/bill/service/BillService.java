@@ -1,18 +1,39 @@
 package com.br.bills_test.bill.service;
 
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.dto.BillCursor;
+import com.br.bills_test.bill.dto.BillRequest;
+import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.bill.dto.BulkLoadResult;
+import com.br.bills_test.bill.dto.BulkPayResponse;
+import com.br.bills_test.bill.dto.ResourceVersion;
 import com.br.bills_test.bill.entity.Bill;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 public interface BillService {
     Optional<Bill> pay(Long id) throws IllegalArgumentException;
+    BulkPayResponse payAll(List<Long> ids);
     Optional<Bill> get(Long id);
-    Page<Bill> getUnpaidBills(Pageable pageable);
+    Optional<ResourceVersion> getVersion(Long id);
+    ResourceVersion getUnpaidBillsVersion();
+    Page<BillResponse> getUnpaidBills(Pageable pageable);
+    List<BillResponse> getUnpaidBillsAfter(BillCursor cursor, int limit);
     Bill create(Bill bill);
-    BigDecimal getTotalPaid(Date startDate, Date endDate);
+    List<Bill> createAll(List<Bill> bills);
+    BulkLoadResult copyAll(Iterator<Bill> bills);
+    Set<String> findImportedFingerprints(Collection<String> fingerprints);
+    BigDecimal getTotalPaid(LocalDate startDate, LocalDate endDate);
     Optional<Bill> update(Long id, Bill bill);
+    Optional<Bill> patch(Long id, BillRequest changes);
+    long export(BillStatus status, LocalDate startDate, LocalDate endDate, Consumer<BillResponse> consumer);
 }
@@ -1,72 +1,248 @@
 package com.br.bills_test.bill.service;
 
 import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.change.UnpaidBillsMarker;
+import com.br.bills_test.bill.config.BillCacheConfiguration;
+import com.br.bills_test.bill.dto.BillCursor;
+import com.br.bills_test.bill.dto.BillRequest;
+import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.bill.dto.BulkLoadResult;
+import com.br.bills_test.bill.dto.BulkPayResponse;
+import com.br.bills_test.bill.dto.ResourceVersion;
+import com.br.bills_test.bill.entity.ArchivedBill;
 import com.br.bills_test.bill.entity.Bill;
+import com.br.bills_test.bill.event.BillCreated;
+import com.br.bills_test.bill.event.BillPaid;
+import com.br.bills_test.bill.event.BillUpdated;
+import com.br.bills_test.bill.event.BillsCreated;
+import com.br.bills_test.bill.event.BillsLoaded;
+import com.br.bills_test.bill.event.BillsPaid;
+import com.br.bills_test.bill.index.PaidAmountIndex;
+import com.br.bills_test.bill.repository.BillArchiveRepository;
+import com.br.bills_test.bill.repository.BillCopyRepository;
 import com.br.bills_test.bill.repository.BillRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
+@Timed(value = "bills.service", description = "BillService calls", histogram = true)
 public class BillServiceImpl implements BillService {
 
+    static final int PAY_CHUNK_SIZE = 1000;
+
     private final BillRepository repository;
+    private final BillArchiveRepository archiveRepository;
+    private final BillCopyRepository copyRepository;
+    private final PaidAmountIndex paidAmountIndex;
+    private final UnpaidBillsMarker unpaidBillsMarker;
+    private final ApplicationEventPublisher events;
+    private final Cache billsCache;
+    private final TransactionTemplate paidSnapshot;
 
     @Autowired
-    public BillServiceImpl(BillRepository repository) {
+    public BillServiceImpl(BillRepository repository,
+                           BillArchiveRepository archiveRepository,
+                           BillCopyRepository copyRepository,
+                           PaidAmountIndex paidAmountIndex,
+                           UnpaidBillsMarker unpaidBillsMarker,
+                           ApplicationEventPublisher events,
+                           CacheManager cacheManager,
+                           PlatformTransactionManager transactionManager) {
         this.repository = repository;
+        this.archiveRepository = archiveRepository;
+        this.copyRepository = copyRepository;
+        this.paidAmountIndex = paidAmountIndex;
+        this.unpaidBillsMarker = unpaidBillsMarker;
+        this.events = events;
+        this.billsCache = cacheManager.getCache(BillCacheConfiguration.BILLS_CACHE);
+        // The live and the archived sums read from one snapshot, only when the paid amount index cannot answer
+        this.paidSnapshot = new TransactionTemplate(transactionManager);
+        this.paidSnapshot.setReadOnly(true);
+        this.paidSnapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
     }
 
     /**
-     * Pays a bill with the given ID by updating its status to PAID and saving it to the repository.
+     * Pays a bill with the given ID with a single conditional update that only succeeds if the bill
+     * is not paid yet, so concurrent payments of the same bill have exactly one winner.
      *
      * @param  id  the ID of the bill to be paid
      * @return     an Optional containing the paid bill, or an empty Optional if the bill was not found
-     * @throws IllegalArgumentException if the ID is null
+     * @throws IllegalStateException if the bill is already paid
      */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = BillCacheConfiguration.BILLS_CACHE, key = "#id")
     public Optional<Bill> pay(Long id) throws IllegalArgumentException {
         log.debug("Attempting to pay bill with id: {}", id);
-        Optional<Bill> optionalBill = repository.findById(id);
-        if (optionalBill.isEmpty()) {
+        Optional<Bill> paidBill = repository.payIfUnpaid(id, LocalDate.now());
+        if (paidBill.isPresent()) {
+            log.debug("Bill with id {} status updated to PAID", id);
+            paidAmountIndex.recordPaid(paidBill.get());
+            unpaidBillsMarker.changed();
+            events.publishEvent(new BillPaid(id, paidBill.get().getAmount(), paidBill.get().getPaymentDate()));
+            return paidBill;
+        }
+        if (!repository.existsById(id) && !archiveRepository.existsById(id)) {
             log.warn("Bill with id {} not found", id);
             return Optional.empty();
         }
-        Bill bill = optionalBill.get();
-        bill.pay();
-        log.debug("Bill with id {} status updated to PAID", id);
-        repository.save(bill);
-        return Optional.of(bill);
+        throw new IllegalStateException("Bill was already paid");
+    }
+
+    /**
+     * Pays all the given bills with one conditional update per chunk of ids. Bills that are already
+     * paid are left untouched, so concurrent payments of the same bill have a single winner.
+     *
+     * @param  ids  the IDs of the bills to be paid
+     * @return      the ids split into paid, already paid and not found
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = BillCacheConfiguration.BILLS_CACHE, allEntries = true)
+    public BulkPayResponse payAll(List<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        LocalDate paymentDate = LocalDate.now();
+        List<Long> paid = new ArrayList<>();
+        List<Long> alreadyPaid = new ArrayList<>();
+        List<Long> notFound = new ArrayList<>();
+        for (int from = 0; from < distinctIds.size(); from += PAY_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + PAY_CHUNK_SIZE, distinctIds.size()));
+            Set<Long> paidInChunk = new HashSet<>();
+            BigDecimal paidAmount = BigDecimal.ZERO;
+            for (BillRepository.PaidBill paidBill : repository.payAllUnpaid(chunk, paymentDate)) {
+                paidInChunk.add(paidBill.getId());
+                if (paidBill.getAmount() != null) {
+                    paidAmount = paidAmount.add(paidBill.getAmount());
+                }
+            }
+            paidAmountIndex.record(paymentDate, paidAmount);
+            if (!paidInChunk.isEmpty()) {
+                unpaidBillsMarker.changed();
+                events.publishEvent(new BillsPaid(chunk.stream().filter(paidInChunk::contains).toList(), paidAmount, paymentDate));
+            }
+            List<Long> remaining = chunk.stream().filter(id -> !paidInChunk.contains(id)).toList();
+            Set<Long> existing = remaining.isEmpty() ? Set.of() : new HashSet<>(repository.findExistingIds(remaining));
+            List<Long> missing = remaining.stream().filter(id -> !existing.contains(id)).toList();
+            if (!missing.isEmpty()) {
+                existing.addAll(archiveRepository.findExistingIds(missing));
+            }
+            for (Long id : chunk) {
+                if (paidInChunk.contains(id)) {
+                    paid.add(id);
+                } else if (existing.contains(id)) {
+                    alreadyPaid.add(id);
+                } else {
+                    notFound.add(id);
+                }
+            }
+        }
+        log.debug("Bulk payment: {} paid, {} already paid, {} not found", paid.size(), alreadyPaid.size(), notFound.size());
+        return new BulkPayResponse(paid, alreadyPaid, notFound);
     }
 
     /**
      * Retrieves an Optional containing a Bill object by its ID.
+     * Found bills are served from the bills cache until they expire or are written again.
+     * Bills that were archived are looked up in the archive when they are not in the live table.
+     * Not read-only on purpose: a lagging replica could hand back a bill that was just written, and the
+     * cache would then keep the stale copy for its whole TTL, so cache fills read from the primary.
      *
      * @param  id  the ID of the Bill to retrieve
      * @return     an Optional containing the Bill object, or an empty Optional if the Bill was not found
      */
     @Override
+    @Transactional
+    @Cacheable(cacheNames = BillCacheConfiguration.BILLS_CACHE, key = "#id", unless = "#result == null")
     public Optional<Bill> get(Long id) {
-        return repository.findById(id);
+        return repository.findById(id).or(() -> archiveRepository.findById(id).map(ArchivedBill::toBill));
     }
 
     /**
-     * Retrieves a page of unpaid bills.
+     * Retrieves only the version and last modification time of a bill, live or archived. Used to
+     * answer conditional reads: a cached bill answers without touching the database, otherwise only
+     * the validators are read, from the primary like {@link #get(Long)}, since a replica could still
+     * validate an ETag that a write already made stale.
+     *
+     * @param  id  the ID of the bill
+     * @return     the validators of the bill, or an empty Optional if the bill was not found
+     */
+    @Override
+    public Optional<ResourceVersion> getVersion(Long id) {
+        Bill cached = billsCache.get(id, Bill.class);
+        if (cached != null) {
+            return Optional.of(new ResourceVersion(cached.getVersion(), cached.getModifiedDate()));
+        }
+        return repository.findVersionById(id).or(() -> archiveRepository.findVersionById(id));
+    }
+
+    /**
+     * Retrieves the change marker of the unpaid bill listings. It must be read before the page it
+     * validates.
+     *
+     * @return the version and time of the last change to the unpaid bills
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getUnpaidBillsVersion() {
+        return unpaidBillsMarker.current();
+    }
+
+    /**
+     * Retrieves a page of unpaid bills, read straight into responses without hydrating entities.
      *
      * @param  pageable   the pageable object specifying the page size, sorting, and pagination information
-     * @return            a Page of Bill objects representing the unpaid bills
+     * @return            a Page of BillResponse objects representing the unpaid bills
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BillResponse> getUnpaidBills(Pageable pageable) {
+        return repository.findUnpaid(pageable);
+    }
+
+    /**
+     * Retrieves unpaid bills ordered by expiring date and id, seeking past the given cursor
+     * instead of skipping an offset, so every page costs the same. No count query is issued.
+     *
+     * @param  cursor  the position of the last bill of the previous page, or null for the first page
+     * @param  limit   the maximum number of bills to return
+     * @return         the unpaid bills following the cursor
      */
     @Override
-    public Page<Bill> getUnpaidBills(Pageable pageable) {
-        return repository.findByStatusNot(BillStatus.PAID, pageable);
+    @Transactional(readOnly = true)
+    public List<BillResponse> getUnpaidBillsAfter(BillCursor cursor, int limit) {
+        if (cursor == null) {
+            return repository.findFirstUnpaid(Limit.of(limit));
+        }
+        return repository.findUnpaidAfter(cursor.expiringDate(), cursor.id(), Limit.of(limit));
     }
 
     /**
@@ -76,42 +252,208 @@ public class BillServiceImpl implements BillService {
      * @return        the saved Bill object
      */
     @Override
+    @Transactional
+    @CachePut(cacheNames = BillCacheConfiguration.BILLS_CACHE, key = "#result.id")
     public Bill create(Bill bill) {
-        return repository.save(bill);
+        Bill saved = repository.save(bill);
+        paidAmountIndex.recordPaid(saved);
+        unpaidBillsMarker.changed();
+        events.publishEvent(new BillCreated(saved.getId(), saved.getStatus(), saved.getAmount(), saved.getPaymentDate()));
+        return saved;
+    }
+
+    /**
+     * Saves a chunk of Bill objects in a single transaction, letting Hibernate
+     * group the inserts into JDBC batches.
+     *
+     * @param  bills  the Bill objects to be saved
+     * @return        the saved Bill objects
+     */
+    @Override
+    @Transactional
+    public List<Bill> createAll(List<Bill> bills) {
+        List<Bill> saved = repository.saveAll(bills);
+        paidAmountIndex.recordAllPaid(saved);
+        unpaidBillsMarker.changed();
+        publishCreated(saved);
+        return saved;
+    }
+
+    /**
+     * Bulk loads bills with PostgreSQL COPY into a staging table and merges them into BILLS with a
+     * single statement, all in one transaction. No entity is instantiated, so this is the path for
+     * very large loads. Status is derived by the database with the same rules as Bill, and rows
+     * whose fingerprint is already stored are skipped.
+     *
+     * @param  bills  the bills to load, with their fingerprint set, read lazily
+     * @return        the staged and inserted row counts and the range of the new ids
+     */
+    @Override
+    @Transactional
+    public BulkLoadResult copyAll(Iterator<Bill> bills) {
+        long staged = copyRepository.copyToStaging(bills);
+        long inserted = 0;
+        long paidCount = 0;
+        BigDecimal paidAmount = BigDecimal.ZERO;
+        Long firstId = null;
+        Long lastId = null;
+        for (BillCopyRepository.MergedDay day : copyRepository.mergeStaged()) {
+            inserted += day.bills();
+            firstId = firstId == null ? day.firstId() : Math.min(firstId, day.firstId());
+            lastId = lastId == null ? day.lastId() : Math.max(lastId, day.lastId());
+            if (day.paymentDate() != null) {
+                paidCount += day.bills();
+                paidAmount = paidAmount.add(day.amount());
+                paidAmountIndex.record(day.paymentDate(), day.amount());
+            }
+        }
+        if (inserted > 0) {
+            unpaidBillsMarker.changed();
+            events.publishEvent(new BillsLoaded(inserted, paidCount, paidAmount));
+        }
+        log.debug("Bulk load: {} rows staged, {} inserted", staged, inserted);
+        return new BulkLoadResult(staged, inserted, firstId, lastId);
+    }
+
+    /**
+     * Returns which of the given import fingerprints already belong to a bill, live or archived.
+     * Both lookups are answered by the fingerprint indexes. Runs on the primary, since a lagging
+     * replica would let a just imported row through again.
+     *
+     * @param  fingerprints  the fingerprints of the rows about to be imported
+     * @return               the fingerprints that are already stored
+     */
+    @Override
+    @Transactional
+    public Set<String> findImportedFingerprints(Collection<String> fingerprints) {
+        if (fingerprints.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> imported = new HashSet<>(repository.findExistingFingerprints(fingerprints));
+        List<String> missing = fingerprints.stream().filter(fingerprint -> !imported.contains(fingerprint)).toList();
+        if (!missing.isEmpty()) {
+            imported.addAll(archiveRepository.findExistingFingerprints(missing));
+        }
+        return imported;
     }
 
     /**
      * Retrieves the total amount paid for bills within the specified date range.
+     * Answered from the in-memory paid amount index without a transaction, or by the database while
+     * the index is not built. The database answer adds the live and the archived bills, read from the
+     * same snapshot so a concurrent archiving batch is counted exactly once.
      *
      * @param  startDate  the start date of the range (inclusive)
      * @param  endDate    the end date of the range (inclusive)
      * @return            the total amount paid, or zero if no paid bills were found
      */
     @Override
-    public BigDecimal getTotalPaid(Date startDate, Date endDate) {
-        List<Bill> paidBills = repository.findByStatusAndPaymentDateBetween(BillStatus.PAID, startDate, endDate);
-        if (paidBills.isEmpty()) {
-            return BigDecimal.ZERO;
+    public BigDecimal getTotalPaid(LocalDate startDate, LocalDate endDate) {
+        Optional<BigDecimal> indexed = paidAmountIndex.getTotalPaid(startDate, endDate);
+        if (indexed.isPresent()) {
+            return indexed.get();
         }
-
-        return paidBills.stream().map(Bill::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return paidSnapshot.execute(status -> {
+            BigDecimal totalPaid = repository.sumAmountByStatusAndPaymentDateBetween(BillStatus.PAID, startDate, endDate);
+            BigDecimal archivedPaid = archiveRepository.sumAmountByPaymentDateBetween(startDate, endDate);
+            return (totalPaid != null ? totalPaid : BigDecimal.ZERO)
+                    .add(archivedPaid != null ? archivedPaid : BigDecimal.ZERO);
+        });
     }
 
     /**
-     * Updates a bill with the given ID by updating its status to PAID and saving it to the repository.
+     * Rewrites a bill with the given ID in a single statement. Its status is recomputed from the new
+     * dates, while its creation date and fingerprint are kept. Archived bills are read-only.
      *
      * @param  id  the ID of the bill to be updated
      * @param  bill  the updated bill object
      * @return     an Optional containing the updated bill, or an empty Optional if the bill was not found
+     * @throws IllegalStateException if the bill is archived
      */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = BillCacheConfiguration.BILLS_CACHE, key = "#id")
     public Optional<Bill> update(Long id, Bill bill) {
-        Optional<Bill> optionalBill = repository.findById(id);
-        if (optionalBill.isEmpty()) {
+        return updated(id, repository.replace(id, bill.getExpiringDate(), bill.getPaymentDate(),
+                bill.getAmount(), bill.getDescription()));
+    }
+
+    /**
+     * Changes only the non-null fields of the request on the bill with the given ID, in a single
+     * statement. Its status is recomputed when a date changes. Archived bills are read-only.
+     *
+     * @param  id       the ID of the bill to be updated
+     * @param  changes  the fields to change
+     * @return          an Optional containing the updated bill, or an empty Optional if the bill was not found
+     * @throws IllegalStateException if the bill is archived
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = BillCacheConfiguration.BILLS_CACHE, key = "#id")
+    public Optional<Bill> patch(Long id, BillRequest changes) {
+        return updated(id, repository.patch(id, changes.getExpiringDate(), changes.getPaymentDate(),
+                changes.getAmount(), changes.getDescription()));
+    }
+
+    private Optional<Bill> updated(Long id, Optional<BillRepository.UpdatedBill> updatedBill) {
+        if (updatedBill.isEmpty()) {
+            // get() still finds archived bills, so they are reported as read-only rather than missing
+            if (archiveRepository.existsById(id)) {
+                throw new IllegalStateException("Bill was archived and is read-only");
+            }
+            log.warn("Bill with id {} not found", id);
             return Optional.empty();
         }
-        bill.setId(id);
-        repository.save(bill);
+        Bill bill = updatedBill.get().toBill();
+        paidAmountIndex.recordUpdated(updatedBill.get().toPreviousBill(), bill);
+        unpaidBillsMarker.changed();
+        events.publishEvent(new BillUpdated(bill.getId(), bill.getStatus()));
         return Optional.of(bill);
     }
+
+    /**
+     * Streams every bill expiring between the given dates to the consumer, one row at a time.
+     * Rows come from a server-side cursor and are never attached to the persistence context,
+     * so memory stays flat no matter how many bills match.
+     *
+     * @param  status     the status to filter by, or null for every status
+     * @param  startDate  the first expiring date to include
+     * @param  endDate    the last expiring date to include
+     * @param  consumer   receives each exported bill
+     * @return            the number of exported bills
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long export(BillStatus status, LocalDate startDate, LocalDate endDate, Consumer<BillResponse> consumer) {
+        long exported = 0;
+        try (Stream<BillResponse> bills = status == null
+                ? repository.streamForExport(startDate, endDate)
+                : repository.streamForExport(status, startDate, endDate)) {
+            for (BillResponse bill : (Iterable<BillResponse>) bills::iterator) {
+                consumer.accept(bill);
+                exported++;
+            }
+        }
+        log.debug("Exported {} bills expiring between {} and {}", exported, startDate, endDate);
+        return exported;
+    }
+
+    private void publishCreated(List<Bill> saved) {
+        if (saved.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(saved.size());
+        int paidCount = 0;
+        BigDecimal paidAmount = BigDecimal.ZERO;
+        for (Bill bill : saved) {
+            ids.add(bill.getId());
+            if (bill.getStatus() == BillStatus.PAID) {
+                paidCount++;
+                if (bill.getAmount() != null) {
+                    paidAmount = paidAmount.add(bill.getAmount());
+                }
+            }
+        }
+        events.publishEvent(new BillsCreated(ids, paidCount, paidAmount));
+    }
 }
@@ -0,0 +1,30 @@
+package com.br.bills_test.config;
+
+import com.fasterxml.jackson.databind.Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.format.datetime.standard.TemporalAccessorParser;
+import org.springframework.format.datetime.standard.TemporalAccessorPrinter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.LocalDate;
+
+/**
+ * Registers {@link DateFormats#FORMATTER} for LocalDate in Jackson and in request parameter binding.
+ */
+@Configuration
+public class DateFormatConfiguration implements WebMvcConfigurer {
+
+    @Bean
+    public Module billDatesModule() {
+        return DateFormats.jacksonModule();
+    }
+
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addFormatterForFieldType(LocalDate.class,
+                new TemporalAccessorPrinter(DateFormats.FORMATTER),
+                new TemporalAccessorParser(LocalDate.class, DateFormats.FORMATTER));
+    }
+}
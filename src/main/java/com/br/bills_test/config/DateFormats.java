@@ -0,0 +1,33 @@
+package com.br.bills_test.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The dd-MM-yyyy date codec shared by JSON bodies, CSV files and request parameters.
+ * DateTimeFormatter is immutable and thread-safe, so one instance serves every conversion.
+ */
+public final class DateFormats {
+
+    public static final String PATTERN = "dd-MM-yyyy";
+    public static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN);
+
+    private DateFormats() {
+    }
+
+    /**
+     * Jackson module reading and writing LocalDate with {@link #FORMATTER}.
+     *
+     * @return a new module instance
+     */
+    public static Module jacksonModule() {
+        return new SimpleModule("bill-dates")
+                .addSerializer(LocalDate.class, new LocalDateSerializer(FORMATTER))
+                .addDeserializer(LocalDate.class, new LocalDateDeserializer(FORMATTER));
+    }
+}
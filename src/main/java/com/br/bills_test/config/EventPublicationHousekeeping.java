@@ -0,0 +1,35 @@
+package com.br.bills_test.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.modulith.events.CompletedEventPublications;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Deletes completed event publications once they are older than the retention, so the registry
+ * only keeps recent history and the publications still waiting for a listener.
+ */
+@Component
+@Slf4j
+public class EventPublicationHousekeeping {
+
+    private final CompletedEventPublications completedPublications;
+    private final Duration retention;
+
+    @Autowired
+    public EventPublicationHousekeeping(CompletedEventPublications completedPublications,
+                                        @Value("${bills.events.completed-retention:7d}") Duration retention) {
+        this.completedPublications = completedPublications;
+        this.retention = retention;
+    }
+
+    @Scheduled(cron = "${bills.events.cleanup-cron:0 15 4 * * *}")
+    public void deleteCompletedPublications() {
+        completedPublications.deletePublicationsOlderThan(retention);
+        log.debug("Deleted event publications completed more than {} ago", retention);
+    }
+}
@@ -0,0 +1,39 @@
+package com.br.bills_test.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas used for read-only transactions, bound from bills.datasource.
+ *
+ * @param replicas          the replica connections; routing is off when empty
+ * @param maxReplicaLag     how far behind the primary a replica may be and still serve reads
+ * @param lagCheckInterval  how often the replica lag is measured
+ * @param lagQuery          returns the replica lag in milliseconds as a single number
+ */
+@ConfigurationProperties("bills.datasource")
+public record ReplicaDataSourceProperties(
+        @DefaultValue List<Replica> replicas,
+        @DefaultValue("5s") Duration maxReplicaLag,
+        @DefaultValue("5s") Duration lagCheckInterval,
+        @DefaultValue(POSTGRES_LAG_QUERY) String lagQuery
+) {
+    /**
+     * Zero when the replica has replayed everything it received, otherwise the age of the last
+     * replayed transaction. An idle primary therefore does not make its replicas look stale.
+     */
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    public record Replica(
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maximumPoolSize
+    ) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.br.bills_test.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary. Replicas take
+ * turns, and a replica whose lag exceeds the configured maximum, or cannot be measured, is
+ * skipped until a later check sees it caught up. With no usable replica, reads go to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy, so the connection is only picked once the
+ * transaction is marked read-only.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final Map<String, AtomicLong> lagMillis = new HashMap<>();
+    private final String lagQuery;
+    private final Duration maxReplicaLag;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<String> usableReplicas = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary,
+                                    Map<String, DataSource> replicas,
+                                    String lagQuery,
+                                    Duration maxReplicaLag,
+                                    MeterRegistry meterRegistry) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.lagQuery = lagQuery;
+        this.maxReplicaLag = maxReplicaLag;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        for (String name : replicas.keySet()) {
+            AtomicLong lag = new AtomicLong(-1);
+            lagMillis.put(name, lag);
+            Gauge.builder("bills.datasource.replica.lag", lag, AtomicLong::get)
+                    .description("Replica lag in milliseconds as of the last check, -1 when unreachable")
+                    .baseUnit("milliseconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicaLag();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> usable = usableReplicas;
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || usable.isEmpty()) {
+            return PRIMARY;
+        }
+        return usable.get(Math.floorMod(next.getAndIncrement(), usable.size()));
+    }
+
+    /**
+     * Measures every replica and keeps only those within the allowed lag for the next reads.
+     */
+    @Scheduled(fixedDelayString = "${bills.datasource.lag-check-interval:5s}")
+    public void checkReplicaLag() {
+        List<String> usable = new ArrayList<>();
+        replicas.forEach((name, dataSource) -> {
+            long lag = measureLag(name, dataSource);
+            lagMillis.get(name).set(lag);
+            if (lag >= 0 && lag <= maxReplicaLag.toMillis()) {
+                usable.add(name);
+            }
+        });
+        if (!usable.equals(usableReplicas)) {
+            log.info("Replicas serving reads: {}", usable.isEmpty() ? "none, using the primary" : usable);
+        }
+        usableReplicas = List.copyOf(usable);
+    }
+
+    List<String> getUsableReplicas() {
+        return usableReplicas;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private long measureLag(String name, DataSource dataSource) {
+        try {
+            Number lag = new JdbcTemplate(dataSource).queryForObject(lagQuery, Number.class);
+            return lag == null ? 0 : Math.max(0, lag.longValue());
+        } catch (RuntimeException e) {
+            log.warn("Could not measure the lag of replica {}: {}", name, e.getMessage());
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.br.bills_test.integration;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,132 @@
+package com.br.bills_test.integration.controller;
+
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.bill.service.BillService;
+import com.br.bills_test.config.DateFormats;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.opencsv.CSVWriter;
+import com.opencsv.ICSVWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("bills/export")
+public class BillExportController {
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    /**
+     * Same columns, in the same order, as the files accepted by the import endpoints.
+     */
+    static final String[] CSV_HEADER = {"expiringDate", "paymentDate", "amount", "description"};
+
+    private static final byte[] NEW_LINE = {'\n'};
+
+    private final BillService billService;
+    private final ObjectWriter billResponseWriter;
+
+    @Autowired
+    public BillExportController(BillService billService, ObjectMapper objectMapper) {
+        this.billService = billService;
+        this.billResponseWriter = objectMapper.writerFor(BillResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Exports the bills expiring between the given dates as a CSV file that can be imported back
+     * as is. Rows are written while they are read from the database, so the export runs in
+     * constant memory regardless of the number of bills. The default format: any Accept header
+     * other than newline-delimited JSON, or none, gets the CSV file.
+     * If the end date is before the start date, it returns a ResponseEntity with a status of BAD_REQUEST.
+     *
+     * @param status    The status to filter by, or every status if absent.
+     * @param startDate The first expiring date to export.
+     * @param endDate   The last expiring date to export.
+     * @return A ResponseEntity streaming the bills as CSV.
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportCsv(
+            @RequestParam(required = false) BillStatus status,
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate
+    ) {
+        if (endDate.isBefore(startDate)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        StreamingResponseBody body = outputStream -> {
+            ICSVWriter csvWriter = new CSVWriter(new BufferedWriter(
+                    new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+            csvWriter.writeNext(CSV_HEADER, false);
+            billService.export(status, startDate, endDate, bill -> csvWriter.writeNext(new String[]{
+                    format(bill.expiringDate()),
+                    format(bill.paymentDate()),
+                    bill.amount() == null ? "" : bill.amount().toPlainString(),
+                    bill.description()
+            }));
+            // flush without closing, the servlet container owns the output stream
+            csvWriter.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bills.csv\"")
+                .body(body);
+    }
+
+    /**
+     * Exports the bills expiring between the given dates as newline-delimited JSON, one
+     * BillResponse per line, written while the rows are read from the database.
+     * If the end date is before the start date, it returns a ResponseEntity with a status of BAD_REQUEST.
+     *
+     * @param status    The status to filter by, or every status if absent.
+     * @param startDate The first expiring date to export.
+     * @param endDate   The last expiring date to export.
+     * @return A ResponseEntity streaming BillResponse objects as newline-delimited JSON.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportNdjson(
+            @RequestParam(required = false) BillStatus status,
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate
+    ) {
+        if (endDate.isBefore(startDate)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        StreamingResponseBody body = outputStream -> {
+            billService.export(status, startDate, endDate, bill -> writeLine(outputStream, bill));
+            outputStream.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream outputStream, BillResponse bill) {
+        try {
+            billResponseWriter.writeValue(outputStream, bill);
+            outputStream.write(NEW_LINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String format(LocalDate date) {
+        return date == null ? "" : DateFormats.FORMATTER.format(date);
+    }
+}
@@ -2,26 +2,54 @@ package com.br.bills_test.integration.controller;
 
 import com.br.bills_test.bill.dto.BillResponse;
 import com.br.bills_test.bill.entity.Bill;
+import com.br.bills_test.integration.dto.ImportJobResponse;
+import com.br.bills_test.integration.dto.ImportSummary;
+import com.br.bills_test.integration.job.ImportJob;
+import com.br.bills_test.integration.service.BillImportJobService;
 import com.br.bills_test.integration.service.BillImportService;
+import com.br.bills_test.integration.service.ImportProgressListener;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("bills/upload")
 public class BillIntegrationController {
 
     private final BillImportService billImportService;
+    private final BillImportJobService billImportJobService;
+    private final ObjectWriter billResponseWriter;
 
     @Autowired
-    public BillIntegrationController(BillImportService billImportService) {
+    public BillIntegrationController(BillImportService billImportService,
+                                     BillImportJobService billImportJobService,
+                                     ObjectMapper objectMapper) {
         this.billImportService = billImportService;
+        this.billImportJobService = billImportJobService;
+        this.billResponseWriter = objectMapper.writerFor(BillResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     /**
@@ -37,4 +65,119 @@ public class BillIntegrationController {
         List<Bill> bills = billImportService.importBills(file);
         return ResponseEntity.ok(bills.stream().map(BillResponse::create).toList());
     }
+
+    /**
+     * Imports bills from a multipart file in fixed-size chunks, without keeping the parsed rows
+     * in memory, and returns only a summary of the import: counts, the range of created ids and
+     * the first rejected rows. The default for /chunked: any Accept header other than
+     * newline-delimited JSON, or none, gets this summary.
+     *
+     * @param file The file containing the bills to be imported.
+     * @return A ResponseEntity containing the ImportSummary.
+     */
+    @PostMapping(path = "/chunked", consumes = "multipart/form-data")
+    public ResponseEntity<ImportSummary> importBillsInChunks(@RequestParam MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return ResponseEntity.ok(billImportService.importInChunks(inputStream));
+        }
+    }
+
+    /**
+     * Imports bills from a multipart file with PostgreSQL COPY into a staging table, merged into the
+     * bills in one statement. Much faster than the chunked import for very large files, but all or
+     * nothing: the whole file is loaded in a single transaction. Returns only the import summary.
+     *
+     * @param file The file containing the bills to be imported.
+     * @return A ResponseEntity containing the ImportSummary.
+     */
+    @PostMapping(path = "/copy", consumes = "multipart/form-data", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportSummary> importBillsWithCopy(@RequestParam MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return ResponseEntity.ok(billImportService.importWithCopy(inputStream));
+        }
+    }
+
+    /**
+     * Imports bills from a multipart file in fixed-size chunks and streams every persisted bill as one
+     * JSON line as soon as its chunk is committed, so the response never holds more than one chunk.
+     * The stream is not cut by an async timeout (spring.mvc.async.request-timeout), since chunks that
+     * were already committed cannot be rolled back.
+     *
+     * @param file The file containing the bills to be imported.
+     * @return A ResponseEntity streaming BillResponse objects as newline-delimited JSON.
+     */
+    @PostMapping(path = "/chunked", consumes = "multipart/form-data", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamImportedBills(@RequestParam MultipartFile file) {
+        StreamingResponseBody body = outputStream -> {
+            try (InputStream inputStream = file.getInputStream()) {
+                billImportService.importInChunks(inputStream, new NdjsonWriter(outputStream));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Spools the file to disk and starts an asynchronous import, returning the job right away.
+     * If the import queue is full, it returns a ResponseEntity with a status of SERVICE_UNAVAILABLE.
+     *
+     * @param file The file containing the bills to be imported.
+     * @return A ResponseEntity containing the queued ImportJobResponse and a status of ACCEPTED.
+     */
+    @PostMapping(path = "/jobs", consumes = "multipart/form-data")
+    public ResponseEntity<ImportJobResponse> submitImportJob(@RequestParam MultipartFile file) {
+        ImportJob job;
+        try {
+            job = billImportJobService.submit(file);
+        } catch (RejectedExecutionException e) {
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/bills/upload/" + job.getId()))
+                .body(ImportJobResponse.create(job));
+    }
+
+    /**
+     * Retrieves the progress of an asynchronous import job.
+     * If the job is unknown, it returns a ResponseEntity with a status of NOT_FOUND.
+     *
+     * @param jobId The ID of the import job.
+     * @return A ResponseEntity containing the ImportJobResponse and a status code.
+     */
+    @GetMapping(path = "/{jobId}")
+    public ResponseEntity<ImportJobResponse> getImportJob(@PathVariable UUID jobId) {
+        Optional<ImportJob> job = billImportJobService.get(jobId);
+        return job.map(value -> ResponseEntity.ok(ImportJobResponse.create(value)))
+                .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Writes each persisted chunk to the response and flushes it before the next chunk is read.
+     */
+    private final class NdjsonWriter implements ImportProgressListener {
+
+        private static final byte[] NEW_LINE = {'\n'};
+
+        private final OutputStream outputStream;
+
+        private NdjsonWriter(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        @Override
+        public void onProgress(long rowsParsed, long rowsPersisted, long rowsRejected) {
+        }
+
+        @Override
+        public void onChunkPersisted(List<Bill> bills) {
+            try {
+                for (Bill bill : bills) {
+                    billResponseWriter.writeValue(outputStream, BillResponse.create(bill));
+                    outputStream.write(NEW_LINE);
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package com.br.bills_test.integration.dto;
+
+import com.br.bills_test.integration.ImportJobStatus;
+import com.br.bills_test.integration.job.ImportJob;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportJobResponse(
+        UUID jobId,
+        ImportJobStatus status,
+        String fileName,
+        long fileSize,
+        long rowsParsed,
+        long rowsPersisted,
+        long rowsFailed,
+        double rowsPerSecond,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+) {
+    public static ImportJobResponse create(ImportJob job) {
+        return new ImportJobResponse(
+                job.getId(),
+                job.getStatus(),
+                job.getFileName(),
+                job.getFileSize(),
+                job.getRowsParsed(),
+                job.getRowsPersisted(),
+                job.getRowsFailed(),
+                job.getRowsPerSecond(),
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt(),
+                job.getError()
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package com.br.bills_test.integration.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportSummary(
+        long rowsParsed,
+        long rowsPersisted,
+        long rowsRejected,
+        long rowsDuplicated,
+        int chunks,
+        long elapsedMillis,
+        Long firstId,
+        Long lastId,
+        List<RejectedRow> rejectedRows
+) {
+    public double rowsPerSecond() {
+        if (elapsedMillis == 0) {
+            return rowsPersisted;
+        }
+        return rowsPersisted * 1000d / elapsedMillis;
+    }
+}
@@ -0,0 +1,7 @@
+package com.br.bills_test.integration.dto;
+
+public record RejectedRow(
+        long line,
+        String reason
+) {
+}
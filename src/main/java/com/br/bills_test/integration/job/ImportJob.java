@@ -0,0 +1,80 @@
+package com.br.bills_test.integration.job;
+
+import com.br.bills_test.integration.ImportJobStatus;
+import com.br.bills_test.integration.service.ImportProgressListener;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * In-memory state of an asynchronous import. Counters are written only by the worker running the
+ * job and read by any number of pollers, so volatile fields are enough.
+ */
+@Getter
+public class ImportJob implements ImportProgressListener {
+
+    private final UUID id = UUID.randomUUID();
+    private final String fileName;
+    private final long fileSize;
+    private final Path spoolFile;
+    private final Instant createdAt = Instant.now();
+
+    private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile long rowsParsed;
+    private volatile long rowsPersisted;
+    private volatile long rowsFailed;
+    private volatile String error;
+
+    public ImportJob(String fileName, long fileSize, Path spoolFile) {
+        this.fileName = fileName;
+        this.fileSize = fileSize;
+        this.spoolFile = spoolFile;
+    }
+
+    @Override
+    public void onProgress(long rowsParsed, long rowsPersisted, long rowsRejected) {
+        this.rowsParsed = rowsParsed;
+        this.rowsPersisted = rowsPersisted;
+        this.rowsFailed = rowsRejected;
+    }
+
+    public void start() {
+        this.startedAt = Instant.now();
+        this.status = ImportJobStatus.RUNNING;
+    }
+
+    public void complete() {
+        this.finishedAt = Instant.now();
+        this.status = ImportJobStatus.COMPLETED;
+    }
+
+    public void fail(Throwable cause) {
+        this.error = cause.getMessage();
+        this.finishedAt = Instant.now();
+        this.status = ImportJobStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == ImportJobStatus.COMPLETED || status == ImportJobStatus.FAILED;
+    }
+
+    /**
+     * Calculates the persisted rows per second since the job started running.
+     *
+     * @return the current throughput, or zero if the job has not started yet
+     */
+    public double getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        long elapsedMillis = Math.max(1, Duration.between(start, end).toMillis());
+        return rowsPersisted * 1000d / elapsedMillis;
+    }
+}
@@ -0,0 +1,48 @@
+package com.br.bills_test.integration.service;
+
+import com.br.bills_test.bill.entity.Bill;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Content fingerprint of an imported CSV row: the SHA-256 of its expiring date, amount and
+ * description. The payment date is left out on purpose, so a feed re-sent after some of its
+ * bills were paid still matches the rows imported the first time.
+ */
+final class BillFingerprint {
+
+    private static final char SEPARATOR = '\u001F';
+
+    private BillFingerprint() {
+    }
+
+    /**
+     * Computes the fingerprint of the given bill.
+     *
+     * @param  bill  the bill parsed from an imported row
+     * @return       64 lowercase hex characters
+     */
+    static String of(Bill bill) {
+        String content = (bill.getExpiringDate() != null ? bill.getExpiringDate().toString() : "")
+                + SEPARATOR + (bill.getAmount() != null ? normalize(bill.getAmount()) : "")
+                + SEPARATOR + (bill.getDescription() != null ? bill.getDescription().strip() : "");
+        return HexFormat.of().formatHex(sha256().digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String normalize(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
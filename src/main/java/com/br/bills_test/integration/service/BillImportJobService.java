@@ -0,0 +1,14 @@
+package com.br.bills_test.integration.service;
+
+import com.br.bills_test.integration.job.ImportJob;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BillImportJobService {
+
+    ImportJob submit(MultipartFile file);
+
+    Optional<ImportJob> get(UUID jobId);
+}
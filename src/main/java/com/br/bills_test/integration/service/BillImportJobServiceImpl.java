@@ -0,0 +1,174 @@
+package com.br.bills_test.integration.service;
+
+import com.br.bills_test.integration.job.ImportJob;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class BillImportJobServiceImpl implements BillImportJobService {
+
+    private final BillImportService billImportService;
+    private final Path spoolDirectory;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+    private final Map<UUID, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BillImportJobServiceImpl(BillImportService billImportService,
+                                    @Value("${bills.import.jobs.spool-dir:${java.io.tmpdir}/bills-import}") Path spoolDirectory,
+                                    @Value("${bills.import.jobs.workers:4}") int workers,
+                                    @Value("${bills.import.jobs.queue-capacity:32}") int queueCapacity,
+                                    @Value("${bills.import.jobs.retention:24h}") Duration retention) {
+        this.billImportService = billImportService;
+        this.spoolDirectory = spoolDirectory;
+        this.retention = retention;
+        // Capacity is bounded by the slots, reserved before a file is spooled, not by the queue
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                Thread.ofVirtual().name("bill-import-", 0).factory());
+        this.slots = new Semaphore(workers + queueCapacity);
+    }
+
+    /**
+     * Reserves a slot on the worker pool, spools the uploaded file to local disk and queues its
+     * import. A full pool rejects the file before anything is written to disk.
+     * The returned job can be polled while the import is running.
+     *
+     * @param  file  the multipart file to import
+     * @return       the queued ImportJob
+     * @throws RejectedExecutionException if the worker pool queue is full or shutting down
+     */
+    @Override
+    public ImportJob submit(MultipartFile file) {
+        purgeFinishedJobs();
+        if (!slots.tryAcquire()) {
+            log.warn("Import queue is full, rejecting file {}", file.getOriginalFilename());
+            throw new RejectedExecutionException("Import queue is full");
+        }
+        ImportJob job;
+        try {
+            job = new ImportJob(file.getOriginalFilename(), file.getSize(), spool(file));
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(new ImportTask(job));
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            jobs.remove(job.getId());
+            deleteSpoolFile(job);
+            log.warn("Import pool is shut down, rejecting file {}", file.getOriginalFilename());
+            throw e;
+        }
+        log.info("Queued import job {} for file {} ({} bytes)", job.getId(), job.getFileName(), job.getFileSize());
+        return job;
+    }
+
+    /**
+     * Retrieves an import job by its ID.
+     *
+     * @param  jobId  the ID of the job
+     * @return        an Optional containing the job, or an empty Optional if it is unknown or already purged
+     */
+    @Override
+    public Optional<ImportJob> get(UUID jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * Interrupts the running imports, which delete their own spool files, and deletes the spool
+     * files of the imports still queued.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (Runnable queued : executor.shutdownNow()) {
+            if (queued instanceof ImportTask task) {
+                log.info("Import job {} dropped on shutdown", task.job.getId());
+                deleteSpoolFile(task.job);
+            }
+        }
+    }
+
+    private void run(ImportJob job) {
+        job.start();
+        try (InputStream inputStream = Files.newInputStream(job.getSpoolFile())) {
+            billImportService.importInChunks(inputStream, job);
+            job.complete();
+            log.info("Import job {} completed: {} rows persisted, {} failed",
+                    job.getId(), job.getRowsPersisted(), job.getRowsFailed());
+        } catch (Exception e) {
+            log.error("Import job {} failed", job.getId(), e);
+            job.fail(e);
+        } finally {
+            deleteSpoolFile(job);
+            slots.release();
+        }
+    }
+
+    private Path spool(MultipartFile file) {
+        try {
+            Files.createDirectories(spoolDirectory);
+            Path spoolFile = Files.createTempFile(spoolDirectory, "import-", ".csv");
+            file.transferTo(spoolFile);
+            return spoolFile;
+        } catch (IOException e) {
+            log.error("Failed to spool file: {}", file.getOriginalFilename(), e);
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteSpoolFile(ImportJob job) {
+        try {
+            Files.deleteIfExists(job.getSpoolFile());
+        } catch (IOException e) {
+            log.warn("Failed to delete spool file {}", job.getSpoolFile(), e);
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        Instant threshold = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+    }
+
+    /**
+     * The queued import of a job, kept recognizable so shutdown can find the jobs it drops.
+     */
+    private final class ImportTask implements Runnable {
+
+        private final ImportJob job;
+
+        private ImportTask(ImportJob job) {
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            BillImportJobServiceImpl.this.run(job);
+        }
+    }
+}
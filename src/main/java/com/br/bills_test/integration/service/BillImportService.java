@@ -1,11 +1,21 @@
 package com.br.bills_test.integration.service;
 
 import com.br.bills_test.bill.entity.Bill;
+import com.br.bills_test.integration.dto.ImportSummary;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface BillImportService {
 
     List<Bill> importBills(MultipartFile file);
+
+    default ImportSummary importInChunks(InputStream inputStream) {
+        return importInChunks(inputStream, ImportProgressListener.NONE);
+    }
+
+    ImportSummary importInChunks(InputStream inputStream, ImportProgressListener listener);
+
+    ImportSummary importWithCopy(InputStream inputStream);
 }
@@ -1,40 +1,284 @@
 package com.br.bills_test.integration.service;
 
 import com.br.bills_test.bill.dto.BillRequest;
+import com.br.bills_test.bill.dto.BulkLoadResult;
 import com.br.bills_test.bill.entity.Bill;
 import com.br.bills_test.bill.service.BillService;
+import com.br.bills_test.integration.dto.ImportSummary;
+import com.br.bills_test.integration.dto.RejectedRow;
 import com.opencsv.bean.CsvToBean;
 import com.opencsv.bean.CsvToBeanBuilder;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Slf4j
 public class BillImportServiceImpl implements BillImportService {
 
+    static final int DEFAULT_CHUNK_SIZE = 1000;
+    static final int MAX_REPORTED_REJECTED_ROWS = 100;
+
     private final BillService billService;
+    private final ImportMetrics importMetrics;
+    private final int chunkSize;
 
     @Autowired
-    public BillImportServiceImpl(BillService billService) {
+    public BillImportServiceImpl(BillService billService,
+                                 ImportMetrics importMetrics,
+                                 @Value("${bills.import.chunk-size:" + DEFAULT_CHUNK_SIZE + "}") int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
         this.billService = billService;
+        this.importMetrics = importMetrics;
+        this.chunkSize = chunkSize;
     }
 
     /**
      * Imports bills from an external source and returns a list of created Bill objects.
+     * Rows that were already imported, by this or an earlier upload, are skipped.
      *
      * @return a list of Bill objects representing the imported bills
      */
     @Override
     public List<Bill> importBills(MultipartFile file) {
-        List<Bill> bills = parseFileToBills(file);
-        return bills.stream().map(billService::create).toList();
+        Timer.Sample sample = importMetrics.start();
+        boolean success = false;
+        try {
+            List<Bill> bills = parseFileToBills(file);
+            importMetrics.recordBytes(file.getSize());
+            List<Bill> created = new ArrayList<>(bills.size());
+            for (int from = 0; from < bills.size(); from += chunkSize) {
+                List<Bill> chunk = bills.subList(from, Math.min(from + chunkSize, bills.size()));
+                withoutImported(chunk).forEach(bill -> created.add(billService.create(bill)));
+            }
+            importMetrics.recordRows(bills.size(), created.size(), 0);
+            importMetrics.recordDuplicates(bills.size() - created.size());
+            success = true;
+            return created;
+        } finally {
+            importMetrics.stop(sample, ImportMetrics.MODE_FULL, success);
+        }
+    }
+
+    /**
+     * Imports bills from a CSV stream without materializing the whole file. Rows are read one at a
+     * time through the CsvToBean iterator and persisted in fixed-size chunks, each chunk in its own
+     * transaction. Rows that fail to bind are counted as rejected and skipped. Rows that were
+     * already imported are counted as duplicated and skipped, so re-sending a file is safe.
+     *
+     * @param  inputStream  the CSV content to import
+     * @param  listener     notified with the running totals after every persisted chunk
+     * @return              a summary with the parsed, persisted, rejected and duplicated row counts
+     */
+    @Override
+    public ImportSummary importInChunks(InputStream inputStream, ImportProgressListener listener) {
+        Timer.Sample sample = importMetrics.start();
+        CountingInputStream countingInputStream = new CountingInputStream(inputStream);
+        boolean success = false;
+        try {
+            ImportSummary summary = writeInChunks(countingInputStream, listener);
+            success = true;
+            return summary;
+        } finally {
+            importMetrics.recordBytes(countingInputStream.getCount());
+            importMetrics.stop(sample, ImportMetrics.MODE_CHUNKED, success);
+        }
+    }
+
+    /**
+     * Imports bills from a CSV stream with PostgreSQL COPY instead of JPA. Validated rows are
+     * fingerprinted and streamed straight into a staging table as they are parsed, then merged
+     * into the bills table by a single statement, all in one transaction. Meant for very large
+     * loads: no entity is built and nothing is kept in memory but the rejected rows reported.
+     *
+     * @param  inputStream  the CSV content to import
+     * @return              a summary with the parsed, persisted, rejected and duplicated row counts
+     */
+    @Override
+    public ImportSummary importWithCopy(InputStream inputStream) {
+        Timer.Sample sample = importMetrics.start();
+        CountingInputStream countingInputStream = new CountingInputStream(inputStream);
+        boolean success = false;
+        try {
+            ImportSummary summary = copy(countingInputStream);
+            success = true;
+            return summary;
+        } finally {
+            importMetrics.recordBytes(countingInputStream.getCount());
+            importMetrics.stop(sample, ImportMetrics.MODE_COPY, success);
+        }
+    }
+
+    private ImportSummary copy(InputStream inputStream) {
+        long startedAt = System.nanoTime();
+        AtomicLong rejected = new AtomicLong();
+        List<RejectedRow> rejectedRows = new ArrayList<>();
+        AtomicLong parsed = new AtomicLong();
+        Iterator<BillRequest> rows = csvToBean(inputStream, rejected, rejectedRows).iterator();
+        Iterator<Bill> bills = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rows.hasNext();
+            }
+
+            @Override
+            public Bill next() {
+                Bill bill = rows.next().toBill();
+                bill.setFingerprint(BillFingerprint.of(bill));
+                parsed.incrementAndGet();
+                return bill;
+            }
+        };
+        BulkLoadResult result = billService.copyAll(bills);
+
+        long duplicated = result.rowsStaged() - result.rowsInserted();
+        importMetrics.recordRows(parsed.get(), result.rowsInserted(), rejected.get());
+        importMetrics.recordDuplicates(duplicated);
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Copied {} of {} rows ({} rejected, {} duplicated) in {} ms",
+                result.rowsInserted(), parsed.get(), rejected.get(), duplicated, elapsedMillis);
+        return new ImportSummary(parsed.get(), result.rowsInserted(), rejected.get(), duplicated,
+                result.rowsInserted() > 0 ? 1 : 0, elapsedMillis, result.firstId(), result.lastId(),
+                List.copyOf(rejectedRows));
+    }
+
+    private ImportSummary writeInChunks(InputStream inputStream, ImportProgressListener listener) {
+        long startedAt = System.nanoTime();
+        AtomicLong rejected = new AtomicLong();
+        List<RejectedRow> rejectedRows = new ArrayList<>();
+        CsvToBean<BillRequest> csvToBean = csvToBean(inputStream, rejected, rejectedRows);
+
+        ChunkWriter writer = new ChunkWriter(listener, rejected);
+        Iterator<BillRequest> iterator = csvToBean.iterator();
+        while (iterator.hasNext()) {
+            writer.add(iterator.next().toBill());
+        }
+        writer.flush();
+        listener.onProgress(writer.parsed, writer.persisted, rejected.get());
+
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.info("Imported {} of {} rows in {} chunks ({} rejected, {} duplicated) in {} ms",
+                writer.persisted, writer.parsed, writer.chunks, rejected.get(), writer.duplicated, elapsedMillis);
+        return new ImportSummary(writer.parsed, writer.persisted, rejected.get(), writer.duplicated, writer.chunks, elapsedMillis,
+                writer.firstId, writer.lastId, List.copyOf(rejectedRows));
+    }
+
+    /**
+     * Builds a lazy CSV reader that counts rows failing to bind as rejected, keeping the first ones
+     * for the import summary, and skips them.
+     */
+    private static CsvToBean<BillRequest> csvToBean(InputStream inputStream, AtomicLong rejected,
+                                                    List<RejectedRow> rejectedRows) {
+        return new CsvToBeanBuilder<BillRequest>(new InputStreamReader(inputStream, StandardCharsets.UTF_8))
+                .withType(BillRequest.class)
+                .withExceptionHandler(e -> {
+                    log.warn("Rejected line {}: {}", e.getLineNumber(), e.getMessage());
+                    if (rejected.incrementAndGet() <= MAX_REPORTED_REJECTED_ROWS) {
+                        rejectedRows.add(new RejectedRow(e.getLineNumber(), e.getMessage()));
+                    }
+                    return null;
+                })
+                .build();
+    }
+
+    /**
+     * Accumulates bills into a chunk and persists its not yet imported rows once it is full,
+     * keeping the running totals.
+     */
+    private final class ChunkWriter {
+
+        private final ImportProgressListener listener;
+        private final AtomicLong rejected;
+        private List<Bill> chunk = new ArrayList<>(chunkSize);
+        private long parsed;
+        private long persisted;
+        private long duplicated;
+        private long reportedRejected;
+        private int chunks;
+        private Long firstId;
+        private Long lastId;
+
+        private ChunkWriter(ImportProgressListener listener, AtomicLong rejected) {
+            this.listener = listener;
+            this.rejected = rejected;
+        }
+
+        void add(Bill bill) {
+            chunk.add(bill);
+            parsed++;
+            if (chunk.size() == chunkSize) {
+                flush();
+                listener.onProgress(parsed, persisted, reportedRejected);
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                importMetrics.recordRows(0, 0, rejected.get() - reportedRejected);
+                reportedRejected = rejected.get();
+                return;
+            }
+            List<Bill> fresh = withoutImported(chunk);
+            duplicated += chunk.size() - fresh.size();
+            importMetrics.recordDuplicates(chunk.size() - fresh.size());
+            if (fresh.isEmpty()) {
+                importMetrics.recordRows(chunk.size(), 0, rejected.get() - reportedRejected);
+                reportedRejected = rejected.get();
+                chunk = new ArrayList<>(chunkSize);
+                return;
+            }
+            List<Bill> saved = billService.createAll(fresh);
+            persisted += saved.size();
+            chunks++;
+            for (Bill bill : saved) {
+                Long id = bill.getId();
+                if (id != null) {
+                    firstId = firstId == null ? id : Math.min(firstId, id);
+                    lastId = lastId == null ? id : Math.max(lastId, id);
+                }
+            }
+            importMetrics.recordRows(chunk.size(), saved.size(), rejected.get() - reportedRejected);
+            reportedRejected = rejected.get();
+            listener.onChunkPersisted(saved);
+            chunk = new ArrayList<>(chunkSize);
+        }
+    }
+
+    /**
+     * Fingerprints the given bills and drops the ones already imported, either earlier in the same
+     * chunk or by a previous import, with a single indexed lookup for the whole chunk.
+     *
+     * @param  bills  a chunk of parsed bills
+     * @return        the bills to persist, with their fingerprint set
+     */
+    private List<Bill> withoutImported(List<Bill> bills) {
+        Map<String, Bill> byFingerprint = new LinkedHashMap<>();
+        for (Bill bill : bills) {
+            String fingerprint = BillFingerprint.of(bill);
+            bill.setFingerprint(fingerprint);
+            byFingerprint.putIfAbsent(fingerprint, bill);
+        }
+        Set<String> imported = billService.findImportedFingerprints(byFingerprint.keySet());
+        imported.forEach(byFingerprint::remove);
+        return new ArrayList<>(byFingerprint.values());
     }
 
     /**
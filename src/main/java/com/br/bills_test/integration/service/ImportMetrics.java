@@ -0,0 +1,72 @@
+package com.br.bills_test.integration.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Meters of the CSV import pipeline: rows by outcome (including rows skipped as already imported), bytes read and import duration.
+ */
+@Component
+public class ImportMetrics {
+
+    static final String MODE_FULL = "full";
+    static final String MODE_CHUNKED = "chunked";
+    static final String MODE_COPY = "copy";
+
+    private final MeterRegistry meterRegistry;
+    private final Counter rowsParsed;
+    private final Counter rowsPersisted;
+    private final Counter rowsRejected;
+    private final Counter rowsDuplicated;
+    private final Counter bytesRead;
+
+    @Autowired
+    public ImportMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.rowsParsed = rowsCounter("parsed");
+        this.rowsPersisted = rowsCounter("persisted");
+        this.rowsRejected = rowsCounter("rejected");
+        this.rowsDuplicated = rowsCounter("duplicate");
+        this.bytesRead = Counter.builder("bills.import.bytes")
+                .description("Bytes read from imported files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void stop(Timer.Sample sample, String mode, boolean success) {
+        sample.stop(Timer.builder("bills.import.duration")
+                .description("Duration of a whole file import")
+                .tag("mode", mode)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    public void recordRows(long parsed, long persisted, long rejected) {
+        rowsParsed.increment(parsed);
+        rowsPersisted.increment(persisted);
+        rowsRejected.increment(rejected);
+    }
+
+    public void recordDuplicates(long duplicated) {
+        rowsDuplicated.increment(duplicated);
+    }
+
+    public void recordBytes(long bytes) {
+        bytesRead.increment(bytes);
+    }
+
+    private Counter rowsCounter(String result) {
+        return Counter.builder("bills.import.rows")
+                .description("Imported CSV rows by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
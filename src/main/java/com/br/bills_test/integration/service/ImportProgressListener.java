@@ -0,0 +1,25 @@
+package com.br.bills_test.integration.service;
+
+import com.br.bills_test.bill.entity.Bill;
+
+import java.util.List;
+
+/**
+ * Receives the running totals of a chunked import after every persisted chunk.
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    ImportProgressListener NONE = (rowsParsed, rowsPersisted, rowsRejected) -> { };
+
+    void onProgress(long rowsParsed, long rowsPersisted, long rowsRejected);
+
+    /**
+     * Called with the bills of a chunk right after its transaction committed, before the next
+     * chunk is read. The list must not be retained.
+     *
+     * @param bills the persisted bills of the chunk
+     */
+    default void onChunkPersisted(List<Bill> bills) {
+    }
+}
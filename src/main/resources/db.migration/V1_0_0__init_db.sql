@@ -1,4 +1,4 @@
-CREATE TABLE BILLS (
+CREATE TABLE IF NOT EXISTS BILLS (
    id SERIAL PRIMARY KEY,
    valor DECIMAL(10, 2),
    descricao TEXT,
@@ -7,4 +7,16 @@ CREATE TABLE BILLS (
    status VARCHAR(20),
    situacao VARCHAR(20),
    data_inclusao TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
\ No newline at end of file
+);
+
+-- Databases created before Flyway owned the schema got BILLS from Hibernate ddl-auto, after
+-- Flyway had recorded an empty history, so this script runs on them too. Their table has no
+-- status column, timestamps for the dates and wider types; bring it to the shape above.
+-- On a table created just above every statement is a no-op.
+ALTER TABLE BILLS ADD COLUMN IF NOT EXISTS status VARCHAR(20);
+ALTER TABLE BILLS ALTER COLUMN valor TYPE DECIMAL(10, 2);
+ALTER TABLE BILLS ALTER COLUMN descricao TYPE TEXT;
+ALTER TABLE BILLS ALTER COLUMN data_vencimento TYPE DATE;
+ALTER TABLE BILLS ALTER COLUMN data_pagamento TYPE DATE;
+ALTER TABLE BILLS ALTER COLUMN situacao TYPE VARCHAR(20);
+ALTER TABLE BILLS ALTER COLUMN data_inclusao SET DEFAULT CURRENT_TIMESTAMP;
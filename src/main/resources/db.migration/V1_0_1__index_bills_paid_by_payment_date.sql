@@ -0,0 +1,5 @@
+-- Supports SUM(valor) over paid bills in a payment date range (/bills/paidAmount).
+-- valor is included so the aggregate can be answered with an index-only scan.
+CREATE INDEX IF NOT EXISTS idx_bills_situacao_data_pagamento
+    ON BILLS (situacao, data_pagamento)
+    INCLUDE (valor);
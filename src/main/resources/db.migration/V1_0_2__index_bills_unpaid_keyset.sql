@@ -0,0 +1,5 @@
+-- Keyset pagination of unpaid bills seeks on (data_vencimento, id).
+-- Partial so that the settled history never enters the index.
+CREATE INDEX IF NOT EXISTS idx_bills_unpaid_data_vencimento_id
+    ON BILLS (data_vencimento, id)
+    WHERE situacao <> 'PAID';
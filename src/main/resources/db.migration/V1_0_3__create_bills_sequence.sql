@@ -0,0 +1,8 @@
+-- Flyway now owns the schema (ddl-auto is off), so the sequence Hibernate uses for
+-- Bill.id has to exist on databases that were created from V1_0_0 alone.
+-- On databases first created by ddl-auto it already exists and is only moved past
+-- the current ids, leaving room for one pooled block of 50.
+CREATE SEQUENCE IF NOT EXISTS bills_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('bills_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM BILLS) + 50,
+                                    (SELECT last_value FROM bills_seq)));
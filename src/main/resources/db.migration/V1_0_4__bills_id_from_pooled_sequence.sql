@@ -0,0 +1,7 @@
+-- Bill.id is allocated by Hibernate in blocks of 50 from bills_seq (pooled optimizer).
+-- Point the column default at the same sequence so SQL inserts cannot collide with
+-- those blocks, and drop the sequence SERIAL created in V1_0_0.
+ALTER TABLE BILLS ALTER COLUMN id TYPE BIGINT;
+ALTER TABLE BILLS ALTER COLUMN id SET DEFAULT nextval('bills_seq');
+ALTER SEQUENCE bills_seq OWNED BY BILLS.id;
+DROP SEQUENCE IF EXISTS bills_id_seq;
@@ -0,0 +1,4 @@
+-- Drives the expiration sweeper: OPEN bills ordered by expiring date.
+CREATE INDEX IF NOT EXISTS idx_bills_open_data_vencimento
+    ON BILLS (data_vencimento)
+    WHERE situacao = 'OPEN';
@@ -0,0 +1,18 @@
+-- Paid bills older than bills.archive.min-age are moved here by BillArchiver, so BILLS and
+-- its indexes only carry open and recently paid bills. Ids keep their value from BILLS.
+CREATE TABLE IF NOT EXISTS BILLS_ARCHIVE (
+   id BIGINT PRIMARY KEY,
+   valor DECIMAL(10, 2),
+   descricao TEXT,
+   data_vencimento DATE,
+   data_pagamento DATE NOT NULL,
+   status VARCHAR(20),
+   situacao VARCHAR(20),
+   data_inclusao TIMESTAMP,
+   data_arquivamento TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Supports SUM(valor) over archived bills in a payment date range with an index-only scan.
+CREATE INDEX IF NOT EXISTS idx_bills_archive_data_pagamento
+    ON BILLS_ARCHIVE (data_pagamento)
+    INCLUDE (valor);
@@ -0,0 +1,17 @@
+-- Spring Modulith event publication registry: one row per event and listener, written in the
+-- transaction that publishes the event and completed once the listener succeeds. Rows left
+-- without completion_date are republished on restart.
+CREATE TABLE IF NOT EXISTS EVENT_PUBLICATION (
+   id UUID NOT NULL PRIMARY KEY,
+   listener_id TEXT NOT NULL,
+   event_type TEXT NOT NULL,
+   serialized_event TEXT NOT NULL,
+   publication_date TIMESTAMP WITH TIME ZONE NOT NULL,
+   completion_date TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_event_publication_serialized_event_hash
+    ON EVENT_PUBLICATION USING hash (serialized_event);
+
+CREATE INDEX IF NOT EXISTS idx_event_publication_completion_date
+    ON EVENT_PUBLICATION (completion_date);
@@ -0,0 +1,15 @@
+-- Content fingerprint of imported bills (SHA-256 of expiring date, amount and description),
+-- used to skip rows that were already imported when a feed is sent again. Bills created
+-- through the API have none. Unique, so two concurrent imports cannot both insert a row.
+ALTER TABLE BILLS ADD COLUMN IF NOT EXISTS fingerprint VARCHAR(64);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_bills_fingerprint
+    ON BILLS (fingerprint)
+    WHERE fingerprint IS NOT NULL;
+
+-- Archived bills keep their fingerprint, so re-sending an old feed does not bring them back.
+ALTER TABLE BILLS_ARCHIVE ADD COLUMN IF NOT EXISTS fingerprint VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_bills_archive_fingerprint
+    ON BILLS_ARCHIVE (fingerprint)
+    WHERE fingerprint IS NOT NULL;
@@ -0,0 +1,17 @@
+-- Row version and last modification time, the validators behind the ETag and Last-Modified
+-- headers of GET /bills/{id}. Every write bumps both. Existing rows start at version 0.
+ALTER TABLE BILLS ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE BILLS ADD COLUMN IF NOT EXISTS data_alteracao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+ALTER TABLE BILLS_ARCHIVE ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE BILLS_ARCHIVE ADD COLUMN IF NOT EXISTS data_alteracao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+-- Change markers of whole listings, bumped after writes commit. The 'unpaid' row validates the
+-- unpaid bill pages, so a poll that changed nothing costs a single primary key lookup.
+CREATE TABLE IF NOT EXISTS BILLS_CHANGES (
+   nome VARCHAR(50) PRIMARY KEY,
+   versao BIGINT NOT NULL DEFAULT 0,
+   data_alteracao TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO BILLS_CHANGES (nome) VALUES ('unpaid') ON CONFLICT (nome) DO NOTHING;
@@ -0,0 +1,7 @@
+-- Bill.creationDate and ArchivedBill.archivedDate are Instants, so their columns hold an instant
+-- rather than a wall-clock time. Stored values were written in the session time zone, which is
+-- how ALTER TYPE reads them, so they keep the instant they denote.
+ALTER TABLE BILLS ALTER COLUMN data_inclusao TYPE TIMESTAMPTZ;
+
+ALTER TABLE BILLS_ARCHIVE ALTER COLUMN data_inclusao TYPE TIMESTAMPTZ;
+ALTER TABLE BILLS_ARCHIVE ALTER COLUMN data_arquivamento TYPE TIMESTAMPTZ;
@@ -0,0 +1,8 @@
+-- data_alteracao backs the Last-Modified header and is read as an Instant, so it holds an
+-- instant rather than a wall-clock time. Stored values were written in the session time zone,
+-- which is how ALTER TYPE reads them.
+ALTER TABLE BILLS ALTER COLUMN data_alteracao TYPE TIMESTAMPTZ;
+
+ALTER TABLE BILLS_ARCHIVE ALTER COLUMN data_alteracao TYPE TIMESTAMPTZ;
+
+ALTER TABLE BILLS_CHANGES ALTER COLUMN data_alteracao TYPE TIMESTAMPTZ;
@@ -0,0 +1,64 @@
+package com.br.bills_test.bill.archive;
+
+import com.br.bills_test.bill.repository.BillArchiveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Period;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BillArchiverTest {
+
+    @Mock
+    private BillArchiveRepository archiveRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void archive_movesBillsPaidBeforeTheCutoffUntilAPartialBatch() {
+        // Arrange
+        BillArchiver archiver = new BillArchiver(archiveRepository, meterRegistry, Period.ofMonths(6), 100, 10, Duration.ZERO);
+        LocalDate cutoff = LocalDate.now().minusMonths(6);
+        when(archiveRepository.archivePaidBefore(cutoff, 100)).thenReturn(100, 100, 5);
+
+        // Act
+        long archived = archiver.archive();
+
+        // Assert
+        assertEquals(205, archived);
+        verify(archiveRepository, times(3)).archivePaidBefore(cutoff, 100);
+        assertEquals(205, meterRegistry.get("bills.archive.rows").counter().count());
+        assertEquals(1, meterRegistry.get("bills.archive.run.rows").summary().count());
+    }
+
+    @Test
+    void archive_stopsAtTheBatchLimit() {
+        // Arrange
+        BillArchiver archiver = new BillArchiver(archiveRepository, meterRegistry, Period.ofYears(1), 100, 2, Duration.ZERO);
+        when(archiveRepository.archivePaidBefore(eq(LocalDate.now().minusYears(1)), eq(100))).thenReturn(100);
+
+        // Act
+        long archived = archiver.archive();
+
+        // Assert
+        assertEquals(200, archived);
+        verify(archiveRepository, times(2)).archivePaidBefore(eq(LocalDate.now().minusYears(1)), eq(100));
+    }
+}
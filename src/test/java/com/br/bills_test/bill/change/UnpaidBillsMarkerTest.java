@@ -0,0 +1,91 @@
+package com.br.bills_test.bill.change;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UnpaidBillsMarkerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private UnpaidBillsMarker marker;
+
+    @BeforeEach
+    void setUp() {
+        marker = new UnpaidBillsMarker(jdbcTemplate);
+    }
+
+    @Test
+    void flush_withoutChanges_doesNotTouchTheMarker() {
+        // Act
+        marker.flush();
+
+        // Assert
+        verify(jdbcTemplate, never()).update(anyString(), eq(UnpaidBillsMarker.MARKER));
+    }
+
+    @Test
+    void flush_coalescesChangesIntoOneBump() {
+        // Arrange
+        marker.changed();
+        marker.changed();
+        marker.changed();
+
+        // Act
+        marker.flush();
+        marker.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(1)).update(anyString(), eq(UnpaidBillsMarker.MARKER));
+    }
+
+    @Test
+    void changed_insideATransaction_waitsForTheCommit() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            marker.changed();
+
+            // Act & Assert
+            marker.flush();
+            verify(jdbcTemplate, never()).update(anyString(), eq(UnpaidBillsMarker.MARKER));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        marker.flush();
+        verify(jdbcTemplate, times(1)).update(anyString(), eq(UnpaidBillsMarker.MARKER));
+    }
+
+    @Test
+    void flush_failure_keepsTheChangeForTheNextFlush() {
+        // Arrange
+        marker.changed();
+        when(jdbcTemplate.update(anyString(), eq(UnpaidBillsMarker.MARKER)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(1);
+
+        // Act
+        marker.flush();
+        marker.flush();
+        marker.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(2)).update(anyString(), eq(UnpaidBillsMarker.MARKER));
+    }
+}
@@ -1,9 +1,13 @@
 package com.br.bills_test.bill.controller;
 
 import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.dto.BillCursor;
 import com.br.bills_test.bill.dto.BillRequest;
 import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.bill.dto.BulkPayResponse;
+import com.br.bills_test.bill.dto.CursorPage;
 import com.br.bills_test.bill.dto.CustomPage;
+import com.br.bills_test.bill.dto.ResourceVersion;
 import com.br.bills_test.bill.dto.TotalPaidResponse;
 import com.br.bills_test.bill.entity.Bill;
 import com.br.bills_test.bill.service.BillServiceImpl;
@@ -17,17 +21,26 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class BillControllerTest {
 
+    private static final ResourceVersion UNPAID_VERSION = new ResourceVersion(7, Instant.parse("2024-01-15T10:00:00Z"));
+
     @Mock
     private BillServiceImpl billService;
 
@@ -41,19 +54,21 @@ class BillControllerTest {
     @Test
     public void testGetUnpaidBills_returnsPageOfBillResponses() {
         // Arrange
-        List<Bill> bills = Arrays.asList(
-                new Bill(1L, null, null, BigDecimal.valueOf(100), "Bill 1", BillStatus.OPEN),
-                new Bill(2L, null, null, BigDecimal.valueOf(200), "Bill 2", BillStatus.OPEN)
+        List<BillResponse> bills = Arrays.asList(
+                openResponse(1L, null, BigDecimal.valueOf(100), "Bill 1"),
+                openResponse(2L, null, BigDecimal.valueOf(200), "Bill 2")
         );
-        Page<Bill> billPage = new PageImpl<>(bills);
+        Page<BillResponse> billPage = new PageImpl<>(bills);
         Pageable pageable = PageRequest.of(0, 10, Sort.by("expiringDate").ascending());
+        when(billService.getUnpaidBillsVersion()).thenReturn(UNPAID_VERSION);
         when(billService.getUnpaidBills(pageable)).thenReturn(billPage);
 
         // Act
-        ResponseEntity<CustomPage<BillResponse>> response = billController.getUnpaidBills(pageable);
+        ResponseEntity<CustomPage<BillResponse>> response = billController.getUnpaidBills(pageable, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"7\"", response.getHeaders().getETag());
         List<BillResponse> billResponses = response.getBody().getContent();
         assertEquals(2, billResponses.size());
         assertEquals(Long.valueOf(1L), billResponses.get(0).id());
@@ -62,11 +77,78 @@ class BillControllerTest {
         assertEquals(BigDecimal.valueOf(200), billResponses.get(1).amount());
     }
 
+    @Test
+    public void testGetUnpaidBills_currentETag_returnsNotModifiedWithoutQueryingThePage() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("expiringDate").ascending());
+        when(billService.getUnpaidBillsVersion()).thenReturn(UNPAID_VERSION);
+
+        // Act
+        ResponseEntity<CustomPage<BillResponse>> response = billController.getUnpaidBills(pageable, "\"6\", W/\"7\"");
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"7\"", response.getHeaders().getETag());
+        assertEquals(UNPAID_VERSION.lastModified().toEpochMilli(), response.getHeaders().getLastModified());
+        assertNull(response.getBody());
+        verify(billService, never()).getUnpaidBills(pageable);
+    }
+
+    @Test
+    public void testGetUnpaidBillsByCursor_firstPage_returnsNextCursor() {
+        // Arrange
+        LocalDate expiringDate = LocalDate.of(2023, 11, 14);
+        List<BillResponse> bills = Arrays.asList(
+                openResponse(1L, expiringDate, BigDecimal.valueOf(100), "Bill 1"),
+                openResponse(2L, expiringDate, BigDecimal.valueOf(200), "Bill 2"),
+                openResponse(3L, expiringDate, BigDecimal.valueOf(300), "Bill 3")
+        );
+        when(billService.getUnpaidBillsVersion()).thenReturn(UNPAID_VERSION);
+        when(billService.getUnpaidBillsAfter(null, 3)).thenReturn(bills);
+
+        // Act
+        ResponseEntity<CursorPage<BillResponse>> response = billController.getUnpaidBillsByCursor(null, 2, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, response.getBody().content().size());
+        BillCursor nextCursor = BillCursor.decode(response.getBody().nextCursor());
+        assertEquals(Long.valueOf(2L), nextCursor.id());
+        assertEquals(expiringDate, nextCursor.expiringDate());
+    }
+
+    @Test
+    public void testGetUnpaidBillsByCursor_lastPage_hasNoNextCursor() {
+        // Arrange
+        BillCursor cursor = new BillCursor(LocalDate.of(2023, 11, 14), 2L);
+        List<BillResponse> bills = List.of(openResponse(3L, LocalDate.now(), BigDecimal.valueOf(300), "Bill 3"));
+        when(billService.getUnpaidBillsVersion()).thenReturn(UNPAID_VERSION);
+        when(billService.getUnpaidBillsAfter(cursor, 3)).thenReturn(bills);
+
+        // Act
+        ResponseEntity<CursorPage<BillResponse>> response = billController.getUnpaidBillsByCursor(cursor.encode(), 2, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().content().size());
+        assertNull(response.getBody().nextCursor());
+    }
+
+    @Test
+    public void testGetUnpaidBillsByCursor_malformedCursor_returnsBadRequest() {
+        // Act
+        ResponseEntity<CursorPage<BillResponse>> response = billController.getUnpaidBillsByCursor("bm90LWEtY3Vyc29y", 10, null);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(billService);
+    }
+
     @Test
     public void testGetPaidAmount_WithValidDates_ReturnsTotalPaidResponse() {
         // Arrange
-        Date startDate = new Date();
-        Date endDate = new Date();
+        LocalDate startDate = LocalDate.now();
+        LocalDate endDate = LocalDate.now();
         BigDecimal totalPaid = BigDecimal.TEN;
         when(billService.getTotalPaid(startDate, endDate)).thenReturn(totalPaid);
 
@@ -107,12 +189,50 @@ class BillControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    void pay_BillAlreadyPaid_ReturnsConflict() {
+        // Arrange
+        Long billId = 1L;
+        when(billService.pay(billId)).thenThrow(new IllegalStateException("Bill was already paid"));
+
+        // Act
+        ResponseEntity<BillResponse> response = billController.pay(billId);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    void payAll_ReturnsOutcomePerId() {
+        // Arrange
+        List<Long> ids = List.of(1L, 2L, 3L);
+        BulkPayResponse bulkPayResponse = new BulkPayResponse(List.of(1L), List.of(2L), List.of(3L));
+        when(billService.payAll(ids)).thenReturn(bulkPayResponse);
+
+        // Act
+        ResponseEntity<BulkPayResponse> response = billController.payAll(ids);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(bulkPayResponse, response.getBody());
+    }
+
+    @Test
+    void payAll_NoIds_ReturnsBadRequest() {
+        // Act
+        ResponseEntity<BulkPayResponse> response = billController.payAll(List.of());
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(billService);
+    }
+
     @Test
     public void testUpdateBill_ValidIdAndRequest_ReturnsNoContent() {
         // Arrange
         Long id = 1L;
-        BillRequest billRequest = new BillRequest( new Date(), null, BigDecimal.valueOf(100), "Bill 1");
-        Bill bill = new Bill(id, new Date(), null, BigDecimal.valueOf(100), "Bill 1", BillStatus.OPEN);
+        BillRequest billRequest = new BillRequest( LocalDate.now(), null, BigDecimal.valueOf(100), "Bill 1");
+        Bill bill = openBill(id, LocalDate.now(), BigDecimal.valueOf(100), "Bill 1");
         Optional<Bill> updatedBill = Optional.of(bill);
         when(billService.update(id, billRequest.toBill())).thenReturn(updatedBill);
 
@@ -127,7 +247,7 @@ class BillControllerTest {
     public void testUpdateBill_InvalidIdAndValidRequest_ReturnsNotFound() {
         // Arrange
         Long id = null;
-        BillRequest billRequest = new BillRequest( new Date(), null, BigDecimal.valueOf(100), "Bill 1");
+        BillRequest billRequest = new BillRequest( LocalDate.now(), null, BigDecimal.valueOf(100), "Bill 1");
 
         // Act
         ResponseEntity<BillResponse> response = billController.update(id, billRequest);
@@ -140,15 +260,82 @@ class BillControllerTest {
     public void testUpdateBill_ValidIdAndInvalidRequest_ReturnsNotFound() {
         // Arrange
         Long id = 1L;
-        BillRequest billRequest = new BillRequest( new Date(), null, BigDecimal.valueOf(100), "Bill 1");
+        BillRequest billRequest = new BillRequest( LocalDate.now(), null, BigDecimal.valueOf(100), "Bill 1");
+
+        // Act
+        ResponseEntity<BillResponse> response = billController.update(id, billRequest);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    public void testUpdateBill_ArchivedBill_ReturnsConflict() {
+        // Arrange
+        Long id = 1L;
+        BillRequest billRequest = new BillRequest( LocalDate.now(), null, BigDecimal.valueOf(100), "Bill 1");
+        when(billService.update(id, billRequest.toBill())).thenThrow(new IllegalStateException("Bill was archived and is read-only"));
 
         // Act
         ResponseEntity<BillResponse> response = billController.update(id, billRequest);
 
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    public void testPatchBill_ValidIdAndRequest_ReturnsNoContent() {
+        // Arrange
+        Long id = 1L;
+        BillRequest changes = new BillRequest(null, null, BigDecimal.valueOf(100), null);
+        Bill bill = openBill(id, LocalDate.now(), BigDecimal.valueOf(100), "Bill 1");
+        when(billService.patch(id, changes)).thenReturn(Optional.of(bill));
+
+        // Act
+        ResponseEntity<BillResponse> response = billController.patch(id, changes);
+
+        // Assert
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    }
+
+    @Test
+    public void testPatchBill_UnknownId_ReturnsNotFound() {
+        // Arrange
+        Long id = 1L;
+        BillRequest changes = new BillRequest(null, null, null, "Bill 1");
+        when(billService.patch(id, changes)).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<BillResponse> response = billController.patch(id, changes);
+
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    public void testPatchBill_ArchivedBill_ReturnsConflict() {
+        // Arrange
+        Long id = 1L;
+        BillRequest changes = new BillRequest(null, null, null, "Bill 1");
+        when(billService.patch(id, changes)).thenThrow(new IllegalStateException("Bill was archived and is read-only"));
+
+        // Act
+        ResponseEntity<BillResponse> response = billController.patch(id, changes);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+    }
+
+    @Test
+    public void testPatchBill_NoField_ReturnsBadRequest() {
+        // Act
+        ResponseEntity<BillResponse> response = billController.patch(1L, new BillRequest());
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(billService);
+    }
+
     @Test
     public void testGetById_BillFound() {
         // Arrange
@@ -161,13 +348,47 @@ class BillControllerTest {
         BillController controller = new BillController(billService);
 
         // Act
-        ResponseEntity<BillResponse> response = controller.getById(billId);
+        ResponseEntity<BillResponse> response = controller.getById(billId, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(billId, response.getBody().id());
     }
 
+    @Test
+    public void testGetById_currentETag_returnsNotModifiedWithoutLoadingTheBill() {
+        // Arrange
+        when(billService.getVersion(1L)).thenReturn(Optional.of(new ResourceVersion(3, Instant.parse("2024-01-15T10:00:00Z"))));
+
+        // Act
+        ResponseEntity<BillResponse> response = billController.getById(1L, "\"3\"");
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"3\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(billService, never()).get(anyLong());
+    }
+
+    @Test
+    public void testGetById_staleETag_returnsTheBillWithItsValidators() {
+        // Arrange
+        Bill bill = openBill(1L, LocalDate.now(), BigDecimal.TEN, "Bill 1");
+        bill.setVersion(4);
+        bill.setModifiedDate(Instant.parse("2024-01-16T10:00:00Z"));
+        when(billService.getVersion(1L)).thenReturn(Optional.of(new ResourceVersion(4, bill.getModifiedDate())));
+        when(billService.get(1L)).thenReturn(Optional.of(bill));
+
+        // Act
+        ResponseEntity<BillResponse> response = billController.getById(1L, "\"3\"");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4\"", response.getHeaders().getETag());
+        assertEquals(bill.getModifiedDate().toEpochMilli(), response.getHeaders().getLastModified());
+        assertEquals(Long.valueOf(1L), response.getBody().id());
+    }
+
     @Test
     public void testGetById_BillNotFound() {
         // Arrange
@@ -178,7 +399,7 @@ class BillControllerTest {
         BillController controller = new BillController(billService);
 
         // Act
-        ResponseEntity<BillResponse> response = controller.getById(billId);
+        ResponseEntity<BillResponse> response = controller.getById(billId, null);
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -187,8 +408,8 @@ class BillControllerTest {
     @Test
     public void testCreateBill() {
         // Arrange
-        BillRequest billRequest = new BillRequest( new Date(), null, BigDecimal.valueOf(100), "Bill 1");
-        Bill bill = new Bill( 1L, new Date(), null, BigDecimal.valueOf(100), "Bill 1", BillStatus.OPEN);
+        BillRequest billRequest = new BillRequest( LocalDate.now(), null, BigDecimal.valueOf(100), "Bill 1");
+        Bill bill = openBill(1L, LocalDate.now(), BigDecimal.valueOf(100), "Bill 1");
         BillResponse billResponse = BillResponse.create(bill);
         when(billService.create(billRequest.toBill())).thenReturn(bill);
 
@@ -200,4 +421,50 @@ class BillControllerTest {
         assertEquals(billResponse, response.getBody());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testCreateBills_returnsCreatedBills() {
+        // Arrange
+        List<BillRequest> billRequests = List.of(
+                new BillRequest(LocalDate.now(), null, BigDecimal.valueOf(100), "Bill 1"),
+                new BillRequest(LocalDate.now(), null, BigDecimal.valueOf(200), "Bill 2")
+        );
+        List<Bill> bills = List.of(
+                openBill(1L, LocalDate.now(), BigDecimal.valueOf(100), "Bill 1"),
+                openBill(2L, LocalDate.now(), BigDecimal.valueOf(200), "Bill 2")
+        );
+        when(billService.createAll(anyList())).thenReturn(bills);
+
+        // Act
+        ResponseEntity<List<BillResponse>> response = billController.createBills(billRequests);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(2, response.getBody().size());
+        assertEquals(Long.valueOf(2L), response.getBody().get(1).id());
+    }
+
+    @Test
+    public void testCreateBills_emptyBatch_returnsBadRequest() {
+        // Act
+        ResponseEntity<List<BillResponse>> response = billController.createBills(List.of());
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(billService);
+    }
+
+    private static BillResponse openResponse(Long id, LocalDate expiringDate, BigDecimal amount, String description) {
+        return BillResponse.create(openBill(id, expiringDate, amount, description));
+    }
+
+    private static Bill openBill(Long id, LocalDate expiringDate, BigDecimal amount, String description) {
+        Bill bill = new Bill();
+        bill.setId(id);
+        bill.setExpiringDate(expiringDate);
+        bill.setAmount(amount);
+        bill.setDescription(description);
+        bill.setStatus(BillStatus.OPEN);
+        return bill;
+    }
+
+}
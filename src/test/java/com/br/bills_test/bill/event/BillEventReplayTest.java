@@ -0,0 +1,118 @@
+package com.br.bills_test.bill.event;
+
+import com.br.bills_test.BillsTestApplication;
+import com.br.bills_test.bill.entity.Bill;
+import com.br.bills_test.bill.service.BillService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.modulith.events.ApplicationModuleListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the application, lets a listener fail on a BillCreated event, stops the application and
+ * starts it again against the same database: the incomplete publication must be delivered on the
+ * second start and then marked completed. An in-memory H2 database that outlives the first
+ * application context stands in for PostgreSQL.
+ */
+class BillEventReplayTest {
+
+    private static final String[] ARGS = {
+            "--spring.datasource.url=jdbc:h2:mem:bill-event-replay;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.flyway.enabled=false",
+            "--spring.jpa.hibernate.ddl-auto=update",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.show-sql=false",
+            "--spring.main.web-application-type=none",
+            "--spring.modulith.events.republish-outstanding-events-on-restart=true",
+            "--bills.paid-index.enabled=false",
+            "--bills.expiration.enabled=false",
+            "--bills.archive.enabled=false"
+    };
+
+    private static final String INCOMPLETE_PUBLICATIONS = "SELECT count(*) FROM event_publication " +
+            "WHERE completion_date IS NULL AND listener_id LIKE '%FlakyListener%'";
+
+    @Test
+    void incompletePublication_isDeliveredAgainAfterRestart() throws InterruptedException {
+        // Arrange
+        FlakyListener.failing = true;
+        FlakyListener.delivered = new CountDownLatch(1);
+        Long id;
+        try (ConfigurableApplicationContext context = start()) {
+            id = context.getBean(BillService.class)
+                    .create(new Bill(LocalDate.now().plusDays(10), null, BigDecimal.TEN, "replayed"))
+                    .getId();
+            assertTrue(FlakyListener.delivered.await(10, TimeUnit.SECONDS), "Listener was not called");
+            assertEquals(1, incompletePublications(context).getAsInt());
+        }
+
+        // Act
+        FlakyListener.failing = false;
+        FlakyListener.delivered = new CountDownLatch(1);
+        FlakyListener.received.clear();
+        try (ConfigurableApplicationContext context = start()) {
+
+            // Assert
+            assertTrue(FlakyListener.delivered.await(10, TimeUnit.SECONDS), "Publication was not republished");
+            assertEquals(List.of(id), FlakyListener.received.stream().map(BillCreated::id).toList());
+            assertTrue(eventually(incompletePublications(context), 0), "Publication was not marked completed");
+        }
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(BillsTestApplication.class, FlakyListener.class)
+                .bannerMode(Banner.Mode.OFF)
+                .run(ARGS);
+    }
+
+    private static IntSupplier incompletePublications(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        return () -> jdbcTemplate.queryForObject(INCOMPLETE_PUBLICATIONS, Integer.class);
+    }
+
+    private static boolean eventually(IntSupplier actual, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (actual.getAsInt() != expected) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(50);
+        }
+        return true;
+    }
+
+    /**
+     * Fails while {@link #failing} is set, leaving the publication incomplete.
+     */
+    public static class FlakyListener {
+
+        static final List<BillCreated> received = new CopyOnWriteArrayList<>();
+        static volatile boolean failing;
+        static volatile CountDownLatch delivered = new CountDownLatch(1);
+
+        @ApplicationModuleListener
+        public void on(BillCreated event) {
+            if (failing) {
+                delivered.countDown();
+                throw new IllegalStateException("Listener unavailable");
+            }
+            received.add(event);
+            delivered.countDown();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.br.bills_test.bill.expiration;
+
+import com.br.bills_test.bill.change.UnpaidBillsMarker;
+import com.br.bills_test.bill.config.BillCacheConfiguration;
+import com.br.bills_test.bill.repository.BillRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BillExpirationSweeperTest {
+
+    @Mock
+    private BillRepository repository;
+
+    @Mock
+    private UnpaidBillsMarker unpaidBillsMarker;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrentMapCacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new ConcurrentMapCacheManager(BillCacheConfiguration.BILLS_CACHE);
+    }
+
+    @Test
+    void sweep_runsBatchesUntilAPartialBatch() {
+        // Arrange
+        BillExpirationSweeper sweeper = new BillExpirationSweeper(repository, cacheManager, unpaidBillsMarker, meterRegistry, 100, 10, Duration.ZERO);
+        when(repository.expireOpenBills(any(LocalDate.class), eq(100))).thenReturn(100, 100, 20);
+
+        // Act
+        long expired = sweeper.sweep();
+
+        // Assert
+        assertEquals(220, expired);
+        verify(repository, times(3)).expireOpenBills(any(LocalDate.class), eq(100));
+        assertEquals(220, meterRegistry.get("bills.expiration.rows").counter().count());
+        assertEquals(1, meterRegistry.get("bills.expiration.run.rows").summary().count());
+        assertEquals(220, meterRegistry.get("bills.expiration.run.rows").summary().totalAmount());
+    }
+
+    @Test
+    void sweep_stopsAtTheBatchLimit() {
+        // Arrange
+        BillExpirationSweeper sweeper = new BillExpirationSweeper(repository, cacheManager, unpaidBillsMarker, meterRegistry, 100, 2, Duration.ZERO);
+        when(repository.expireOpenBills(any(LocalDate.class), eq(100))).thenReturn(100);
+
+        // Act
+        long expired = sweeper.sweep();
+
+        // Assert
+        assertEquals(200, expired);
+        verify(repository, times(2)).expireOpenBills(any(LocalDate.class), eq(100));
+    }
+
+    @Test
+    void sweep_evictsCachedBillsAndMarksUnpaidChangedOnlyWhenSomethingExpired() {
+        // Arrange
+        BillExpirationSweeper sweeper = new BillExpirationSweeper(repository, cacheManager, unpaidBillsMarker, meterRegistry, 100, 10, Duration.ZERO);
+        cacheManager.getCache(BillCacheConfiguration.BILLS_CACHE).put(1L, "cached");
+        when(repository.expireOpenBills(any(LocalDate.class), eq(100))).thenReturn(0, 1);
+
+        // Act & Assert
+        sweeper.sweep();
+        assertNotNull(cacheManager.getCache(BillCacheConfiguration.BILLS_CACHE).get(1L));
+        verify(unpaidBillsMarker, never()).changed();
+        sweeper.sweep();
+        assertNull(cacheManager.getCache(BillCacheConfiguration.BILLS_CACHE).get(1L));
+        verify(unpaidBillsMarker).changed();
+    }
+}
@@ -0,0 +1,80 @@
+package com.br.bills_test.bill.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DailyPrefixSumsTest {
+
+    @Test
+    void sum_emptyIndex_isZero() {
+        // Arrange
+        DailyPrefixSums sums = new DailyPrefixSums();
+
+        // Act & Assert
+        assertEquals(0, sums.sum(0, 1000));
+        assertEquals(0, sums.total());
+    }
+
+    @Test
+    void sum_rangesInsideAndAroundTheIndexedDays() {
+        // Arrange
+        DailyPrefixSums sums = new DailyPrefixSums();
+        sums.add(100, 500);
+        sums.add(110, 250);
+        sums.add(105, 1000);
+        sums.add(100, 5);
+
+        // Act & Assert
+        assertEquals(505, sums.sum(100, 100));
+        assertEquals(1505, sums.sum(100, 105));
+        assertEquals(1250, sums.sum(101, 110));
+        assertEquals(1755, sums.sum(0, 10_000));
+        assertEquals(0, sums.sum(101, 104));
+        assertEquals(0, sums.sum(111, 200));
+        assertEquals(0, sums.sum(110, 100));
+        assertEquals(1755, sums.total());
+    }
+
+    @Test
+    void add_beforeTheOrigin_shiftsTheIndex() {
+        // Arrange
+        DailyPrefixSums sums = new DailyPrefixSums();
+        sums.add(200, 100);
+
+        // Act
+        sums.add(150, 40);
+
+        // Assert
+        assertEquals(40, sums.sum(150, 150));
+        assertEquals(100, sums.sum(151, 200));
+        assertEquals(140, sums.total());
+    }
+
+    @Test
+    void add_negativeAmount_removesIt() {
+        // Arrange
+        DailyPrefixSums sums = new DailyPrefixSums();
+        sums.add(10, 300);
+        sums.add(20, 700);
+
+        // Act
+        sums.add(10, -300);
+
+        // Assert
+        assertEquals(0, sums.sum(10, 19));
+        assertEquals(700, sums.sum(10, 20));
+    }
+
+    @Test
+    void add_beyondMaxDays_isRejected() {
+        // Arrange
+        DailyPrefixSums sums = new DailyPrefixSums();
+        sums.add(0, 1);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> sums.add(DailyPrefixSums.MAX_DAYS, 1));
+        assertEquals(1, sums.total());
+    }
+}
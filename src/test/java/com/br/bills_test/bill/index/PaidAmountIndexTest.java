@@ -0,0 +1,255 @@
+package com.br.bills_test.bill.index;
+
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.entity.Bill;
+import com.br.bills_test.bill.repository.BillArchiveRepository;
+import com.br.bills_test.bill.repository.BillRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PaidAmountIndexTest {
+
+    private static final LocalDate JANUARY_1 = LocalDate.of(2024, 1, 1);
+    private static final LocalDate JANUARY_15 = LocalDate.of(2024, 1, 15);
+    private static final LocalDate JANUARY_31 = LocalDate.of(2024, 1, 31);
+
+    @Mock
+    private BillRepository repository;
+
+    @Mock
+    private BillArchiveRepository archiveRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaidAmountIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new PaidAmountIndex(repository, archiveRepository, transactionManager, meterRegistry, true);
+    }
+
+    @Test
+    void getTotalPaid_beforeTheFirstBuild_isEmpty() {
+        // Act
+        Optional<BigDecimal> total = index.getTotalPaid(JANUARY_1, JANUARY_31);
+
+        // Assert
+        assertFalse(total.isPresent());
+        verify(repository, never()).sumAmountByStatusPerPaymentDate(BillStatus.PAID);
+    }
+
+    @Test
+    void rebuild_loadsDailyTotalsFromOneAggregateQuery() {
+        // Arrange
+        when(repository.sumAmountByStatusPerPaymentDate(BillStatus.PAID)).thenReturn(List.of(
+                dailyTotal(JANUARY_1, "10.50"),
+                dailyTotal(JANUARY_15, "4.25"),
+                dailyTotal(JANUARY_31, "100.00")
+        ));
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertTrue(index.isReady());
+        assertEquals(new BigDecimal("14.75"), index.getTotalPaid(JANUARY_1, JANUARY_15).orElseThrow());
+        assertEquals(new BigDecimal("104.25"), index.getTotalPaid(JANUARY_15, JANUARY_31).orElseThrow());
+        assertEquals(new BigDecimal("0.00"), index.getTotalPaid(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31)).orElseThrow());
+    }
+
+    @Test
+    void rebuild_addsArchivedBillsToTheLiveOnes() {
+        // Arrange
+        when(repository.sumAmountByStatusPerPaymentDate(BillStatus.PAID)).thenReturn(List.of(dailyTotal(JANUARY_15, "1.00")));
+        when(archiveRepository.sumAmountPerPaymentDate()).thenReturn(List.of(
+                dailyTotal(JANUARY_1, "7.00"),
+                dailyTotal(JANUARY_15, "2.50")
+        ));
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertEquals(new BigDecimal("7.00"), index.getTotalPaid(JANUARY_1, JANUARY_1).orElseThrow());
+        assertEquals(new BigDecimal("3.50"), index.getTotalPaid(JANUARY_15, JANUARY_15).orElseThrow());
+        assertEquals(0, index.verify());
+    }
+
+    @Test
+    void recordUpdated_movesTheAmountToTheNewPaymentDay() {
+        // Arrange
+        when(repository.sumAmountByStatusPerPaymentDate(BillStatus.PAID)).thenReturn(List.of(dailyTotal(JANUARY_1, "20.00")));
+        index.rebuild();
+        Bill previous = paidBill(JANUARY_1, "20.00");
+        Bill current = paidBill(JANUARY_31, "25.00");
+
+        // Act
+        index.recordUpdated(previous, current);
+        index.recordPaid(new Bill(JANUARY_15, null, BigDecimal.TEN, "still open"));
+
+        // Assert
+        assertEquals(new BigDecimal("0.00"), index.getTotalPaid(JANUARY_1, JANUARY_15).orElseThrow());
+        assertEquals(new BigDecimal("25.00"), index.getTotalPaid(JANUARY_1, JANUARY_31).orElseThrow());
+    }
+
+    @Test
+    void verify_whenTheDatabaseChangedBehindTheIndex_rebuilds() {
+        // Arrange
+        when(repository.sumAmountByStatusPerPaymentDate(BillStatus.PAID))
+                .thenReturn(List.of(dailyTotal(JANUARY_1, "10.00")))
+                .thenReturn(List.of(dailyTotal(JANUARY_1, "10.00"), dailyTotal(JANUARY_15, "5.00")));
+        index.rebuild();
+
+        // Act
+        int differences = index.verify();
+
+        // Assert
+        assertEquals(1, differences);
+        assertEquals(1, meterRegistry.get("bills.paid_index.mismatches").counter().count());
+        assertEquals(new BigDecimal("15.00"), index.getTotalPaid(JANUARY_1, JANUARY_31).orElseThrow());
+        verify(repository, times(3)).sumAmountByStatusPerPaymentDate(BillStatus.PAID);
+    }
+
+    @Test
+    void verify_whenInSync_keepsTheIndex() {
+        // Arrange
+        when(repository.sumAmountByStatusPerPaymentDate(BillStatus.PAID)).thenReturn(List.of(dailyTotal(JANUARY_1, "10.00")));
+        index.rebuild();
+
+        // Act
+        int differences = index.verify();
+
+        // Assert
+        assertEquals(0, differences);
+        verify(repository, times(2)).sumAmountByStatusPerPaymentDate(BillStatus.PAID);
+    }
+
+    @Test
+    void verify_whileAPaymentIsCommitting_skipsItsDay() {
+        // Arrange
+        when(repository.sumAmountByStatusPerPaymentDate(BillStatus.PAID))
+                .thenReturn(List.of(dailyTotal(JANUARY_1, "10.00")))
+                .thenReturn(List.of(dailyTotal(JANUARY_1, "10.00"), dailyTotal(JANUARY_15, "5.00")));
+        index.rebuild();
+        List<TransactionSynchronization> synchronizations;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // committed in the database, not yet applied to the index
+            index.recordPaid(paidBill(JANUARY_15, "5.00"));
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Act
+        int differences = index.verify();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+
+        // Assert
+        assertEquals(0, differences);
+        assertEquals(new BigDecimal("15.00"), index.getTotalPaid(JANUARY_1, JANUARY_31).orElseThrow());
+        verify(repository, times(2)).sumAmountByStatusPerPaymentDate(BillStatus.PAID);
+    }
+
+    @Test
+    void verify_whenAPaymentIsAppliedAfterTheDatabaseRead_skipsItsDay() {
+        // Arrange
+        when(repository.sumAmountByStatusPerPaymentDate(BillStatus.PAID))
+                .thenReturn(List.of(dailyTotal(JANUARY_1, "10.00")))
+                .thenAnswer(invocation -> {
+                    // committed after the check's snapshot and applied before its comparison
+                    index.recordPaid(paidBill(JANUARY_15, "5.00"));
+                    return List.of(dailyTotal(JANUARY_1, "10.00"));
+                });
+        index.rebuild();
+
+        // Act
+        int differences = index.verify();
+
+        // Assert
+        assertEquals(0, differences);
+        assertEquals(new BigDecimal("15.00"), index.getTotalPaid(JANUARY_1, JANUARY_31).orElseThrow());
+        verify(repository, times(2)).sumAmountByStatusPerPaymentDate(BillStatus.PAID);
+    }
+
+    @Test
+    void verify_afterAPaymentCompleted_comparesItsDayAgain() {
+        // Arrange
+        when(repository.sumAmountByStatusPerPaymentDate(BillStatus.PAID))
+                .thenReturn(List.of(dailyTotal(JANUARY_1, "10.00")))
+                .thenReturn(List.of(dailyTotal(JANUARY_1, "10.00"), dailyTotal(JANUARY_15, "7.00")));
+        index.rebuild();
+        index.recordPaid(paidBill(JANUARY_15, "5.00"));
+
+        // Act
+        int differences = index.verify();
+
+        // Assert
+        assertEquals(1, differences);
+        assertEquals(new BigDecimal("17.00"), index.getTotalPaid(JANUARY_1, JANUARY_31).orElseThrow());
+    }
+
+    @Test
+    void verify_afterAWriteDisabledTheIndex_rebuildsIt() {
+        // Arrange
+        when(repository.sumAmountByStatusPerPaymentDate(BillStatus.PAID))
+                .thenReturn(List.of(dailyTotal(JANUARY_1, "10.00")))
+                .thenReturn(List.of(dailyTotal(JANUARY_1, "10.00"), dailyTotal(JANUARY_15, "5.00")));
+        index.rebuild();
+        index.recordPaid(paidBill(JANUARY_1.plusDays(DailyPrefixSums.MAX_DAYS), "1.00"));
+        assertFalse(index.isReady());
+        assertEquals(0, meterRegistry.get("bills.paid_index.ready").gauge().value());
+
+        // Act
+        index.verify();
+
+        // Assert
+        assertTrue(index.isReady());
+        assertEquals(1, meterRegistry.get("bills.paid_index.ready").gauge().value());
+        assertEquals(new BigDecimal("15.00"), index.getTotalPaid(JANUARY_1, JANUARY_31).orElseThrow());
+    }
+
+    private static Bill paidBill(LocalDate paymentDate, String amount) {
+        return new Bill(paymentDate, paymentDate, new BigDecimal(amount), "paid");
+    }
+
+    private static BillRepository.DailyTotal dailyTotal(LocalDate paymentDate, String total) {
+        return new BillRepository.DailyTotal() {
+            @Override
+            public LocalDate getPaymentDate() {
+                return paymentDate;
+            }
+
+            @Override
+            public BigDecimal getTotal() {
+                return new BigDecimal(total);
+            }
+        };
+    }
+}
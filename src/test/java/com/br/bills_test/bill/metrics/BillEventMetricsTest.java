@@ -0,0 +1,54 @@
+package com.br.bills_test.bill.metrics;
+
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.event.BillCreated;
+import com.br.bills_test.bill.event.BillPaid;
+import com.br.bills_test.bill.event.BillsCreated;
+import com.br.bills_test.bill.event.BillsLoaded;
+import com.br.bills_test.bill.event.BillsPaid;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BillEventMetricsTest {
+
+    @Test
+    void events_countCreatedAndPaidBills() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BillEventMetrics metrics = new BillEventMetrics(meterRegistry);
+        LocalDate today = LocalDate.now();
+
+        // Act
+        metrics.on(new BillCreated(1L, BillStatus.OPEN, BigDecimal.TEN, null));
+        metrics.on(new BillCreated(2L, BillStatus.PAID, new BigDecimal("2.50"), today));
+        metrics.on(new BillsCreated(List.of(3L, 4L, 5L), 1, BigDecimal.ONE));
+        metrics.on(new BillPaid(1L, BigDecimal.TEN, today));
+        metrics.on(new BillsPaid(List.of(3L, 4L), new BigDecimal("6.50"), today));
+
+        // Assert
+        assertEquals(5, meterRegistry.get("bills.events.created").counter().count());
+        assertEquals(5, meterRegistry.get("bills.events.paid").counter().count());
+        assertEquals(20, meterRegistry.get("bills.events.paid.amount").counter().count());
+    }
+
+    @Test
+    void bulkLoad_countsTotalsWithoutIds() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BillEventMetrics metrics = new BillEventMetrics(meterRegistry);
+
+        // Act
+        metrics.on(new BillsLoaded(1_000_000, 250_000, new BigDecimal("1250.75")));
+
+        // Assert
+        assertEquals(1_000_000, meterRegistry.get("bills.events.created").counter().count());
+        assertEquals(250_000, meterRegistry.get("bills.events.paid").counter().count());
+        assertEquals(1250.75, meterRegistry.get("bills.events.paid.amount").counter().count());
+    }
+}
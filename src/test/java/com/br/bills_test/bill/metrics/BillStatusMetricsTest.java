@@ -0,0 +1,58 @@
+package com.br.bills_test.bill.metrics;
+
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.repository.BillRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BillStatusMetricsTest {
+
+    @Mock
+    private BillRepository repository;
+
+    @Test
+    void refresh_publishesCountPerStatus() {
+        // Arrange
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BillStatusMetrics metrics = new BillStatusMetrics(repository, meterRegistry);
+        when(repository.countByStatus()).thenReturn(List.of(
+                statusCount(BillStatus.PAID, 10),
+                statusCount(BillStatus.OPEN, 3)
+        ));
+
+        // Act
+        metrics.refresh();
+
+        // Assert
+        assertEquals(10, gauge(meterRegistry, BillStatus.PAID));
+        assertEquals(3, gauge(meterRegistry, BillStatus.OPEN));
+        assertEquals(0, gauge(meterRegistry, BillStatus.EXPIRED));
+    }
+
+    private static double gauge(SimpleMeterRegistry meterRegistry, BillStatus status) {
+        return meterRegistry.get("bills.status.count").tag("status", status.name()).gauge().value();
+    }
+
+    private static BillRepository.StatusCount statusCount(BillStatus status, long total) {
+        return new BillRepository.StatusCount() {
+            @Override
+            public BillStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.br.bills_test.bill.repository;
+
+import com.br.bills_test.bill.entity.Bill;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BillCopyRepositoryTest {
+
+    @Test
+    void writeRow_quotesDescriptionsAndLeavesNullsEmpty() throws IOException {
+        // Arrange
+        Bill paid = new Bill(LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 15), new BigDecimal("100.50"),
+                "Rent, \"March\"\nsecond line");
+        paid.setFingerprint("abc");
+        Bill open = new Bill(LocalDate.of(2024, 2, 1), null, null, null);
+        Bill blank = new Bill(LocalDate.of(2024, 3, 1), null, BigDecimal.TEN, "");
+        StringWriter writer = new StringWriter();
+
+        // Act
+        BillCopyRepository.writeRow(writer, paid);
+        BillCopyRepository.writeRow(writer, open);
+        BillCopyRepository.writeRow(writer, blank);
+
+        // Assert
+        assertEquals("2024-01-10,2024-01-15,100.50,\"Rent, \"\"March\"\"\nsecond line\",abc\n" +
+                "2024-02-01,,,,\n" +
+                "2024-03-01,,10,\"\",\n", writer.toString());
+    }
+}
@@ -0,0 +1,294 @@
+package com.br.bills_test.bill.repository;
+
+import com.br.bills_test.bill.BillStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs every BillRepository query against a large seeded dataset, captures the SQL Hibernate
+ * actually sends and fails if PostgreSQL plans a sequential scan on BILLS for any of them. The
+ * BillArchiveRepository lookups made on the import path are checked the same way on BILLS_ARCHIVE.
+ * countByStatus and sumAmountByStatusPerPaymentDate are left out on purpose: they aggregate the
+ * whole table and only run at startup or on a schedule, off the request path. The streamForExport queries are left out too, since an
+ * export is expected to read a large share of the table. Needs the local Postgres from
+ * docker-compose.yml.
+ */
+@Tag("performance")
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.br.bills_test.bill.repository.BillRepositoryQueryPlanTest$SqlRecorder"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BillRepositoryQueryPlanTest {
+
+    private static final String DESCRIPTION_PREFIX = "query-plan-";
+    private static final String ARCHIVED_PREFIX = "query-plan-archived-";
+    private static final int ROWS = 300_000;
+
+    private static final LocalDate START_DATE = LocalDate.of(2023, 3, 1);
+    private static final LocalDate END_DATE = LocalDate.of(2023, 3, 31);
+
+    @Autowired
+    private BillRepository repository;
+
+    @Autowired
+    private BillArchiveRepository archiveRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    void seed() {
+        // 90% settled history spread over three years, 10% open or expired bills.
+        jdbcTemplate.update("""
+                INSERT INTO bills (id, valor, descricao, data_vencimento, data_pagamento, situacao, data_inclusao, fingerprint)
+                SELECT nextval('bills_seq'),
+                       (g % 100000) / 100.0,
+                       ? || g,
+                       DATE '2022-01-01' + (g % 1095),
+                       CASE WHEN g % 10 = 0 THEN NULL ELSE DATE '2022-01-01' + (g % 1095) END,
+                       CASE WHEN g % 10 <> 0 THEN 'PAID' WHEN g % 20 = 0 THEN 'EXPIRED' ELSE 'OPEN' END,
+                       now(),
+                       md5(? || g)
+                FROM generate_series(1, ?) AS g
+                """, DESCRIPTION_PREFIX, DESCRIPTION_PREFIX, ROWS);
+        // Paid bills archived over the three years before, each with its import fingerprint.
+        jdbcTemplate.update("""
+                INSERT INTO bills_archive (id, valor, descricao, data_vencimento, data_pagamento, situacao, data_inclusao, fingerprint)
+                SELECT nextval('bills_seq'),
+                       (g % 100000) / 100.0,
+                       ? || g,
+                       DATE '2019-01-01' + (g % 1095),
+                       DATE '2019-01-01' + (g % 1095),
+                       'PAID',
+                       now(),
+                       md5(? || g)
+                FROM generate_series(1, ?) AS g
+                """, ARCHIVED_PREFIX, ARCHIVED_PREFIX, ROWS);
+        jdbcTemplate.execute("VACUUM ANALYZE bills");
+        jdbcTemplate.execute("VACUUM ANALYZE bills_archive");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bills WHERE descricao LIKE ?", DESCRIPTION_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM bills_archive WHERE descricao LIKE ?", ARCHIVED_PREFIX + "%");
+    }
+
+    @BeforeEach
+    void clearRecordedStatements() {
+        SqlRecorder.STATEMENTS.clear();
+    }
+
+    @Test
+    void findById_usesIndex() {
+        Long id = jdbcTemplate.queryForObject("SELECT max(id) FROM bills", Long.class);
+        repository.findById(id);
+        assertNoSequentialScan(id);
+    }
+
+    @Test
+    void findUnpaid_usesIndex() {
+        repository.findUnpaid(PageRequest.of(100, 10, Sort.by("expiringDate")));
+        // the page query binds (offset, limit), the count query binds nothing
+        assertNoSequentialScan(1000, 10);
+    }
+
+    @Test
+    void sumAmountByStatusAndPaymentDateBetween_usesIndex() {
+        repository.sumAmountByStatusAndPaymentDateBetween(BillStatus.PAID, START_DATE, END_DATE);
+        assertNoSequentialScan(BillStatus.PAID.name(), START_DATE, END_DATE);
+    }
+
+    @Test
+    void findFirstUnpaid_usesIndex() {
+        repository.findFirstUnpaid(Limit.of(10));
+        assertNoSequentialScan(10);
+    }
+
+    @Test
+    void findUnpaidAfter_usesIndex() {
+        repository.findUnpaidAfter(START_DATE, 0L, Limit.of(10));
+        assertNoSequentialScan(START_DATE, 0L, 10);
+    }
+
+    @Test
+    void payIfUnpaid_usesIndex() {
+        Long id = jdbcTemplate.queryForObject("SELECT max(id) FROM bills", Long.class);
+        repository.payIfUnpaid(id, END_DATE);
+        assertNoSequentialScan(END_DATE, id);
+    }
+
+    @Test
+    void payAllUnpaid_usesIndex() {
+        Long id = jdbcTemplate.queryForObject("SELECT max(id) FROM bills", Long.class);
+        repository.payAllUnpaid(List.of(id - 1, id), END_DATE);
+        assertNoSequentialScan(END_DATE, id - 1, id);
+    }
+
+    @Test
+    void findExistingIds_usesIndex() {
+        Long id = jdbcTemplate.queryForObject("SELECT max(id) FROM bills", Long.class);
+        repository.findExistingIds(List.of(id - 1, id));
+        assertNoSequentialScan(id - 1, id);
+    }
+
+    @Test
+    void findVersionById_usesIndex() {
+        Long id = jdbcTemplate.queryForObject("SELECT max(id) FROM bills", Long.class);
+        repository.findVersionById(id);
+        assertNoSequentialScan(id);
+    }
+
+    @Test
+    void findExistingFingerprints_usesIndex() {
+        List<String> fingerprints = fingerprints(DESCRIPTION_PREFIX);
+        repository.findExistingFingerprints(fingerprints);
+        assertNoSequentialScan(fingerprints.toArray());
+    }
+
+    @Test
+    void findExistingArchivedFingerprints_usesIndex() {
+        List<String> fingerprints = fingerprints(ARCHIVED_PREFIX);
+        archiveRepository.findExistingFingerprints(fingerprints);
+        // "Seq Scan on bills" also matches a sequential scan on bills_archive
+        assertNoSequentialScan(fingerprints.toArray());
+    }
+
+    /**
+     * Fingerprints of two seeded rows, computed the way the seed does.
+     */
+    private List<String> fingerprints(String prefix) {
+        return jdbcTemplate.queryForList("SELECT md5(? || g) FROM generate_series(1, 2) AS g", String.class, prefix);
+    }
+
+    @Test
+    void expireOpenBills_usesIndex() {
+        repository.expireOpenBills(START_DATE, 10);
+        assertNoSequentialScan(START_DATE, 10);
+    }
+
+    @Test
+    void replace_usesIndex() {
+        Long id = jdbcTemplate.queryForObject("SELECT max(id) FROM bills", Long.class);
+        BigDecimal amount = new BigDecimal("12.34");
+        String description = DESCRIPTION_PREFIX + "replaced";
+        inRolledBackTransaction(() -> repository.replace(id, END_DATE, null, amount, description));
+        // each occurrence of a named parameter is its own placeholder, in the order they appear
+        assertNoSequentialScan(END_DATE, null, amount, description, null, END_DATE, id);
+    }
+
+    @Test
+    void patch_usesIndex() {
+        Long id = jdbcTemplate.queryForObject("SELECT max(id) FROM bills", Long.class);
+        BigDecimal amount = new BigDecimal("12.34");
+        inRolledBackTransaction(() -> repository.patch(id, null, null, amount, null));
+        assertNoSequentialScan(null, null, amount, null, null, null, null, null, id);
+    }
+
+    /**
+     * Runs a write in a read-write transaction that is rolled back, so the seeded rows stay as
+     * they are for the other checks.
+     */
+    private void inRolledBackTransaction(Runnable write) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            write.run();
+            status.setRollbackOnly();
+        });
+    }
+
+    /**
+     * Explains every statement recorded since the last reset. Parameters are bound positionally,
+     * so each statement receives as many leading values as it has placeholders.
+     */
+    private void assertNoSequentialScan(Object... parameters) {
+        List<String> statements = new ArrayList<>(SqlRecorder.STATEMENTS);
+        assertFalse(statements.isEmpty(), "No statement was recorded");
+        for (String sql : statements) {
+            String plan = explain(sql, parameters);
+            assertFalse(plan.contains("Seq Scan on bills"), "Sequential scan planned for: " + sql + "\n" + plan);
+        }
+    }
+
+    private String explain(String sql, Object... parameters) {
+        int placeholders = 0;
+        StringBuilder numbered = new StringBuilder();
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++placeholders);
+            } else {
+                numbered.append(c);
+            }
+        }
+        String arguments = Arrays.stream(parameters, 0, placeholders)
+                .map(BillRepositoryQueryPlanTest::toLiteral)
+                .collect(Collectors.joining(", ", "(", ")"));
+        String execute = "EXPLAIN EXECUTE plan_check" + (placeholders == 0 ? "" : arguments);
+        // PREPARE is connection scoped, so the whole check runs on a single connection
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PREPARE plan_check AS " + numbered);
+                try (ResultSet resultSet = statement.executeQuery(execute)) {
+                    List<String> lines = new ArrayList<>();
+                    while (resultSet.next()) {
+                        lines.add(resultSet.getString(1));
+                    }
+                    return String.join("\n", lines);
+                } finally {
+                    statement.execute("DEALLOCATE plan_check");
+                }
+            }
+        });
+    }
+
+    private static String toLiteral(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        return "'" + value + "'";
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
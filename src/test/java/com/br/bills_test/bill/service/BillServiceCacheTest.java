@@ -0,0 +1,195 @@
+package com.br.bills_test.bill.service;
+
+import com.br.bills_test.bill.change.UnpaidBillsMarker;
+import com.br.bills_test.bill.config.BillCacheConfiguration;
+import com.br.bills_test.bill.dto.ResourceVersion;
+import com.br.bills_test.bill.entity.Bill;
+import com.br.bills_test.bill.index.PaidAmountIndex;
+import com.br.bills_test.bill.repository.BillArchiveRepository;
+import com.br.bills_test.bill.repository.BillCopyRepository;
+import com.br.bills_test.bill.repository.BillRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig({BillCacheConfiguration.class, BillServiceImpl.class, BillServiceCacheTest.TransactionConfiguration.class})
+class BillServiceCacheTest {
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionConfiguration {
+    }
+
+    @MockBean
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private BillRepository repository;
+
+    @MockBean
+    private BillArchiveRepository archiveRepository;
+
+    @MockBean
+    private BillCopyRepository copyRepository;
+
+    @MockBean
+    private PaidAmountIndex paidAmountIndex;
+
+    @MockBean
+    private UnpaidBillsMarker unpaidBillsMarker;
+
+    @Autowired
+    private BillService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(BillCacheConfiguration.BILLS_CACHE).clear();
+    }
+
+    @Test
+    void get_repeatedReads_hitTheRepositoryOnce() {
+        // Arrange
+        Bill bill = new Bill();
+        bill.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(bill));
+
+        // Act
+        service.get(1L);
+        service.get(1L);
+        Optional<Bill> result = service.get(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(repository, times(1)).findById(1L);
+    }
+
+    @Test
+    void get_missingBill_isNotCached() {
+        // Arrange
+        when(repository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act
+        service.get(1L);
+        service.get(1L);
+
+        // Assert
+        verify(repository, times(2)).findById(1L);
+    }
+
+    @Test
+    void pay_evictsCachedBill() {
+        // Arrange
+        Bill bill = new Bill();
+        bill.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(bill));
+        when(repository.payIfUnpaid(eq(1L), any(LocalDate.class))).thenReturn(Optional.of(bill));
+
+        // Act
+        service.get(1L);
+        service.pay(1L);
+        service.get(1L);
+
+        // Assert
+        verify(repository, times(2)).findById(1L);
+    }
+
+    @Test
+    void create_putsBillInTheCache() {
+        // Arrange
+        Bill bill = new Bill();
+        bill.setId(1L);
+        when(repository.save(bill)).thenReturn(bill);
+
+        // Act
+        service.create(bill);
+        Optional<Bill> result = service.get(1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(repository, times(0)).findById(1L);
+    }
+
+    @Test
+    void get_cacheHit_doesNotOpenATransaction() {
+        // Arrange
+        Bill bill = new Bill();
+        bill.setId(1L);
+        when(repository.findById(1L)).thenReturn(Optional.of(bill));
+
+        // Act
+        service.get(1L);
+        service.get(1L);
+
+        // Assert
+        verify(transactionManager, times(1)).getTransaction(any());
+    }
+
+    @Test
+    void pay_insideTransaction_evictsOnlyAfterCommit() {
+        // Arrange
+        Bill bill = new Bill();
+        bill.setId(1L);
+        Cache cache = cacheManager.getCache(BillCacheConfiguration.BILLS_CACHE);
+        cache.put(1L, bill);
+        when(repository.payIfUnpaid(eq(1L), any(LocalDate.class))).thenReturn(Optional.of(bill));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            service.pay(1L);
+
+            // Assert
+            assertNotNull(cache.get(1L));
+
+            // Act
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void getVersion_afterGet_answersFromTheCache() {
+        // Arrange
+        Bill bill = new Bill();
+        bill.setId(1L);
+        bill.setVersion(2);
+        when(repository.findById(1L)).thenReturn(Optional.of(bill));
+
+        // Act
+        service.get(1L);
+        Optional<ResourceVersion> result = service.getVersion(1L);
+
+        // Assert
+        assertEquals(2, result.get().version());
+        verify(repository, never()).findVersionById(1L);
+    }
+}
@@ -1,18 +1,49 @@
 package com.br.bills_test.bill.service;
 
 import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.change.UnpaidBillsMarker;
+import com.br.bills_test.bill.config.BillCacheConfiguration;
+import com.br.bills_test.bill.dto.BillCursor;
+import com.br.bills_test.bill.dto.BillRequest;
+import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.bill.dto.BulkLoadResult;
+import com.br.bills_test.bill.dto.BulkPayResponse;
+import com.br.bills_test.bill.dto.ResourceVersion;
+import com.br.bills_test.bill.entity.ArchivedBill;
 import com.br.bills_test.bill.entity.Bill;
+import com.br.bills_test.bill.event.BillPaid;
+import com.br.bills_test.bill.event.BillUpdated;
+import com.br.bills_test.bill.event.BillsLoaded;
+import com.br.bills_test.bill.event.BillsPaid;
+import com.br.bills_test.bill.index.PaidAmountIndex;
+import com.br.bills_test.bill.repository.BillArchiveRepository;
+import com.br.bills_test.bill.repository.BillCopyRepository;
 import com.br.bills_test.bill.repository.BillRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,11 +54,33 @@ class BillServiceImplTest {
     @Mock
     BillRepository repository;
 
+    @Mock
+    BillArchiveRepository archiveRepository;
+
+    @Mock
+    BillCopyRepository copyRepository;
+
+    @Mock
+    PaidAmountIndex paidAmountIndex;
+
+    @Mock
+    UnpaidBillsMarker unpaidBillsMarker;
+
+    @Mock
+    ApplicationEventPublisher events;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    ConcurrentMapCacheManager cacheManager;
+
     BillService service;
 
     @BeforeEach
     void setUp() {
-        service = new BillServiceImpl(repository);
+        cacheManager = new ConcurrentMapCacheManager(BillCacheConfiguration.BILLS_CACHE);
+        service = new BillServiceImpl(repository, archiveRepository, copyRepository, paidAmountIndex, unpaidBillsMarker, events, cacheManager,
+                transactionManager);
     }
 
     @Test
@@ -35,9 +88,8 @@ class BillServiceImplTest {
         // Arrange
         Bill bill = new Bill();
         bill.setId(1L);
-        bill.setStatus(BillStatus.OPEN);
-        when(repository.findById(bill.getId())).thenReturn(Optional.of(bill));
-        when(repository.save(bill)).thenReturn(bill);
+        bill.setStatus(BillStatus.PAID);
+        when(repository.payIfUnpaid(eq(bill.getId()), any(LocalDate.class))).thenReturn(Optional.of(bill));
 
         // Act
         Optional<Bill> result = service.pay(bill.getId());
@@ -45,13 +97,16 @@ class BillServiceImplTest {
         // Assert
         assertTrue(result.isPresent());
         assertEquals(BillStatus.PAID, result.get().getStatus());
-        verify(repository, times(1)).save(bill);
+        verify(repository, never()).existsById(anyLong());
+        verify(repository, never()).save(any());
+        verify(events).publishEvent(new BillPaid(1L, null, null));
     }
 
     @Test
     void test_pay_notFound() {
         // Arrange
-        when(repository.findById(anyLong())).thenReturn(Optional.empty());
+        when(repository.payIfUnpaid(anyLong(), any(LocalDate.class))).thenReturn(Optional.empty());
+        when(repository.existsById(1L)).thenReturn(false);
 
         // Act
         Optional<Bill> result = service.pay(1L);
@@ -60,6 +115,123 @@ class BillServiceImplTest {
         assertFalse(result.isPresent());
     }
 
+    @Test
+    void test_pay_alreadyPaid() {
+        // Arrange
+        when(repository.payIfUnpaid(anyLong(), any(LocalDate.class))).thenReturn(Optional.empty());
+        when(repository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> service.pay(1L));
+    }
+
+    @Test
+    void test_pay_archived_isAlreadyPaid() {
+        // Arrange
+        when(repository.payIfUnpaid(anyLong(), any(LocalDate.class))).thenReturn(Optional.empty());
+        when(repository.existsById(1L)).thenReturn(false);
+        when(archiveRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> service.pay(1L));
+    }
+
+    @Test
+    void test_copyAll_recordsPaidDaysAndPublishesTotals() {
+        // Arrange
+        Iterator<Bill> bills = List.<Bill>of().iterator();
+        LocalDate paymentDate = LocalDate.of(2024, 1, 15);
+        when(copyRepository.copyToStaging(bills)).thenReturn(5L);
+        when(copyRepository.mergeStaged()).thenReturn(List.of(
+                new BillCopyRepository.MergedDay(null, 2, BigDecimal.valueOf(30), 11, 14),
+                new BillCopyRepository.MergedDay(paymentDate, 2, BigDecimal.valueOf(25), 10, 12)));
+
+        // Act
+        BulkLoadResult result = service.copyAll(bills);
+
+        // Assert
+        assertEquals(new BulkLoadResult(5, 4, 10L, 14L), result);
+        verify(paidAmountIndex).record(paymentDate, BigDecimal.valueOf(25));
+        verify(events).publishEvent(new BillsLoaded(4, 2, BigDecimal.valueOf(25)));
+    }
+
+    @Test
+    void test_copyAll_nothingInsertedPublishesNothing() {
+        // Arrange
+        Iterator<Bill> bills = List.<Bill>of().iterator();
+        when(copyRepository.copyToStaging(bills)).thenReturn(3L);
+        when(copyRepository.mergeStaged()).thenReturn(List.of());
+
+        // Act
+        BulkLoadResult result = service.copyAll(bills);
+
+        // Assert
+        assertEquals(new BulkLoadResult(3, 0, null, null), result);
+        verifyNoInteractions(paidAmountIndex, unpaidBillsMarker, events);
+    }
+
+    @Test
+    void test_findImportedFingerprints_checksLiveThenArchive() {
+        // Arrange
+        when(repository.findExistingFingerprints(List.of("a", "b", "c"))).thenReturn(List.of("a"));
+        when(archiveRepository.findExistingFingerprints(List.of("b", "c"))).thenReturn(List.of("c"));
+
+        // Act
+        Set<String> result = service.findImportedFingerprints(List.of("a", "b", "c"));
+
+        // Assert
+        assertEquals(Set.of("a", "c"), result);
+    }
+
+    @Test
+    void test_findImportedFingerprints_emptyInputSkipsQueries() {
+        // Act
+        Set<String> result = service.findImportedFingerprints(List.of());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(repository, archiveRepository);
+    }
+
+    @Test
+    void test_payAll_splitsPaidAlreadyPaidAndNotFound() {
+        // Arrange
+        when(repository.payAllUnpaid(eq(List.of(1L, 2L, 3L, 4L)), any(LocalDate.class)))
+                .thenReturn(List.of(paidBill(1L, BigDecimal.TEN)));
+        when(repository.findExistingIds(List.of(2L, 3L, 4L))).thenReturn(List.of(2L));
+        when(archiveRepository.findExistingIds(List.of(3L, 4L))).thenReturn(List.of(4L));
+
+        // Act
+        BulkPayResponse result = service.payAll(List.of(1L, 2L, 3L, 4L, 1L));
+
+        // Assert
+        assertEquals(List.of(1L), result.paid());
+        assertEquals(List.of(2L, 4L), result.alreadyPaid());
+        assertEquals(List.of(3L), result.notFound());
+        verify(paidAmountIndex).record(any(LocalDate.class), eq(BigDecimal.TEN));
+        verify(events).publishEvent(new BillsPaid(List.of(1L), BigDecimal.TEN, LocalDate.now()));
+    }
+
+    @Test
+    void test_payAll_issuesOneUpdatePerChunk() {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= BillServiceImpl.PAY_CHUNK_SIZE + 1; id++) {
+            ids.add(id);
+        }
+        when(repository.payAllUnpaid(anyList(), any(LocalDate.class))).thenAnswer(i -> i.<List<Long>>getArgument(0).stream()
+                .map(id -> paidBill(id, BigDecimal.ONE))
+                .toList());
+
+        // Act
+        BulkPayResponse result = service.payAll(ids);
+
+        // Assert
+        assertEquals(ids, result.paid());
+        verify(repository, times(2)).payAllUnpaid(anyList(), any(LocalDate.class));
+        verify(repository, never()).findExistingIds(anyList());
+    }
+
     @Test
     void test_create() {
         // Arrange
@@ -75,48 +247,223 @@ class BillServiceImplTest {
         verify(repository, times(1)).save(bill);
     }
 
+    @Test
+    void test_createAll() {
+        // Arrange
+        List<Bill> bills = List.of(new Bill(), new Bill());
+        when(repository.saveAll(bills)).thenReturn(bills);
+
+        // Act
+        List<Bill> result = service.createAll(bills);
+
+        // Assert
+        assertEquals(2, result.size());
+        verify(repository, times(1)).saveAll(bills);
+        verify(paidAmountIndex).recordAllPaid(bills);
+    }
+
+    @Test
+    void test_getUnpaidBills_readsProjections() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<BillResponse> page = new PageImpl<>(List.of(unpaidResponse(1L)), pageable, 1);
+        when(repository.findUnpaid(pageable)).thenReturn(page);
+
+        // Act
+        Page<BillResponse> result = service.getUnpaidBills(pageable);
+
+        // Assert
+        assertEquals(page, result);
+    }
+
+    @Test
+    void test_getUnpaidBillsAfter_withoutCursor_readsFirstPage() {
+        // Arrange
+        List<BillResponse> bills = List.of(unpaidResponse(1L));
+        when(repository.findFirstUnpaid(Limit.of(11))).thenReturn(bills);
+
+        // Act
+        List<BillResponse> result = service.getUnpaidBillsAfter(null, 11);
+
+        // Assert
+        assertEquals(bills, result);
+    }
+
+    @Test
+    void test_getUnpaidBillsAfter_withCursor_seeksPastCursor() {
+        // Arrange
+        BillCursor cursor = new BillCursor(LocalDate.now(), 42L);
+        List<BillResponse> bills = List.of(unpaidResponse(43L));
+        when(repository.findUnpaidAfter(cursor.expiringDate(), 42L, Limit.of(11))).thenReturn(bills);
+
+        // Act
+        List<BillResponse> result = service.getUnpaidBillsAfter(cursor, 11);
+
+        // Assert
+        assertEquals(bills, result);
+        verify(repository, never()).findFirstUnpaid(any());
+    }
+
     @Test
     void test_update() {
         // Arrange
         Long id = 1L;
-        Bill bill = new Bill();
-        bill.setId(id);
-        when(repository.findById(id)).thenReturn(Optional.of(bill));
-        when(repository.save(bill)).thenReturn(bill);
+        LocalDate expiringDate = LocalDate.now();
+        Bill bill = new Bill(expiringDate, null, BigDecimal.TEN, "Rent");
+        Bill stored = new Bill(expiringDate, null, BigDecimal.TEN, "Rent");
+        stored.setId(id);
+        stored.setVersion(4);
+        stored.setFingerprint("abc");
+        when(repository.replace(id, expiringDate, null, BigDecimal.TEN, "Rent"))
+                .thenReturn(Optional.of(updatedBill(stored, new Bill(BillStatus.OPEN, BigDecimal.ONE))));
 
         // Act
         Optional<Bill> result = service.update(id, bill);
 
         // Assert
         assertTrue(result.isPresent());
-        assertEquals(bill, result.get());
-        verify(repository, times(1)).save(bill);
+        assertEquals(id, result.get().getId());
+        assertEquals(4, result.get().getVersion());
+        assertEquals("abc", result.get().getFingerprint());
+        verify(repository, never()).findById(anyLong());
+        verify(repository, never()).save(any());
+        verify(unpaidBillsMarker).changed();
+        verify(events).publishEvent(new BillUpdated(id, BillStatus.OPEN));
+    }
+
+    @Test
+    void test_update_replacesThePreviousPaidAmount() {
+        // Arrange
+        Long id = 1L;
+        LocalDate paymentDate = LocalDate.now().minusDays(1);
+        Bill previous = new Bill(BillStatus.PAID, BigDecimal.ONE);
+        previous.setPaymentDate(paymentDate);
+        Bill stored = new Bill(LocalDate.now(), null, BigDecimal.TEN, "Rent");
+        stored.setId(id);
+        when(repository.replace(id, stored.getExpiringDate(), null, BigDecimal.TEN, "Rent"))
+                .thenReturn(Optional.of(updatedBill(stored, previous)));
+
+        // Act
+        Optional<Bill> result = service.update(id, stored);
+
+        // Assert
+        verify(paidAmountIndex).recordUpdated(argThat(bill -> bill.getStatus() == BillStatus.PAID
+                && paymentDate.equals(bill.getPaymentDate())
+                && BigDecimal.ONE.equals(bill.getAmount())), eq(result.get()));
+    }
+
+    @Test
+    void test_patch_passesOnlyTheGivenFields() {
+        // Arrange
+        Long id = 1L;
+        BillRequest changes = new BillRequest(null, null, BigDecimal.TEN, null);
+        Bill stored = new Bill(LocalDate.now(), null, BigDecimal.TEN, "Rent");
+        stored.setId(id);
+        when(repository.patch(id, null, null, BigDecimal.TEN, null))
+                .thenReturn(Optional.of(updatedBill(stored, new Bill(BillStatus.OPEN, BigDecimal.ONE))));
+
+        // Act
+        Optional<Bill> result = service.patch(id, changes);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(BigDecimal.TEN, result.get().getAmount());
+        verify(unpaidBillsMarker).changed();
+        verify(events).publishEvent(new BillUpdated(id, BillStatus.OPEN));
+    }
+
+    @Test
+    void test_patch_notFound() {
+        // Arrange
+        Long id = 1L;
+        when(repository.patch(id, null, null, BigDecimal.TEN, null)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<Bill> result = service.patch(id, new BillRequest(null, null, BigDecimal.TEN, null));
+
+        // Assert
+        assertFalse(result.isPresent());
+        verifyNoInteractions(paidAmountIndex, unpaidBillsMarker, events);
+    }
+
+    @Test
+    void test_patch_archived_isReadOnly() {
+        // Arrange
+        Long id = 1L;
+        when(repository.patch(id, null, null, BigDecimal.TEN, null)).thenReturn(Optional.empty());
+        when(archiveRepository.existsById(id)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> service.patch(id, new BillRequest(null, null, BigDecimal.TEN, null)));
+        verifyNoInteractions(paidAmountIndex, unpaidBillsMarker, events);
+    }
+
+    @Test
+    void test_getVersion_cachedBill_skipsTheDatabase() {
+        // Arrange
+        Bill bill = new Bill();
+        bill.setId(1L);
+        bill.setVersion(5);
+        bill.setModifiedDate(Instant.parse("2024-01-15T10:00:00Z"));
+        cacheManager.getCache(BillCacheConfiguration.BILLS_CACHE).put(1L, bill);
+
+        // Act
+        Optional<ResourceVersion> result = service.getVersion(1L);
+
+        // Assert
+        assertEquals(Optional.of(new ResourceVersion(5, bill.getModifiedDate())), result);
+        verifyNoInteractions(repository, archiveRepository);
+    }
+
+    @Test
+    void test_getVersion_fallsBackToTheArchive() {
+        // Arrange
+        ResourceVersion version = new ResourceVersion(2, Instant.parse("2024-01-15T10:00:00Z"));
+        when(repository.findVersionById(1L)).thenReturn(Optional.empty());
+        when(archiveRepository.findVersionById(1L)).thenReturn(Optional.of(version));
+
+        // Act
+        Optional<ResourceVersion> result = service.getVersion(1L);
+
+        // Assert
+        assertEquals(Optional.of(version), result);
+        verify(repository, never()).findById(anyLong());
     }
 
     @Test
     void test_update_notFound() {
         // Arrange
         Long id = 1L;
-        when(repository.findById(id)).thenReturn(Optional.empty());
+        when(repository.replace(id, null, null, null, null)).thenReturn(Optional.empty());
 
         // Act
         Optional<Bill> result = service.update(id, new Bill());
 
         // Assert
         assertFalse(result.isPresent());
+        verifyNoInteractions(paidAmountIndex, unpaidBillsMarker, events);
+    }
+
+    @Test
+    void test_update_archived_isReadOnly() {
+        // Arrange
+        Long id = 1L;
+        when(repository.replace(id, null, null, null, null)).thenReturn(Optional.empty());
+        when(archiveRepository.existsById(id)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> service.update(id, new Bill()));
+        verifyNoInteractions(paidAmountIndex, unpaidBillsMarker, events);
     }
 
     @Test
     public void testGetTotalPaid_WithPaidBills_ReturnsTotalAmount() {
         // Arrange
-        Date startDate = new Date();
-        Date endDate = new Date();
-        List<Bill> paidBills = List.of(
-                new Bill(BillStatus.PAID, BigDecimal.valueOf(10)),
-                new Bill(BillStatus.PAID, BigDecimal.valueOf(20)),
-                new Bill(BillStatus.PAID, BigDecimal.valueOf(30))
-        );
-        when(repository.findByStatusAndPaymentDateBetween(BillStatus.PAID, startDate, endDate)).thenReturn(paidBills);
+        LocalDate startDate = LocalDate.now();
+        LocalDate endDate = LocalDate.now();
+        when(repository.sumAmountByStatusAndPaymentDateBetween(BillStatus.PAID, startDate, endDate))
+                .thenReturn(BigDecimal.valueOf(60));
 
         // Act
         BigDecimal totalAmount = service.getTotalPaid(startDate, endDate);
@@ -128,9 +475,10 @@ class BillServiceImplTest {
     @Test
     public void testGetTotalPaid_WithNoPaidBills_ReturnsZero() {
         // Arrange
-        Date startDate = new Date();
-        Date endDate = new Date();
-        when(repository.findByStatusAndPaymentDateBetween(BillStatus.PAID, startDate, endDate)).thenReturn(List.of());
+        LocalDate startDate = LocalDate.now();
+        LocalDate endDate = LocalDate.now();
+        when(repository.sumAmountByStatusAndPaymentDateBetween(BillStatus.PAID, startDate, endDate))
+                .thenReturn(BigDecimal.ZERO);
 
         // Act
         BigDecimal totalAmount = service.getTotalPaid(startDate, endDate);
@@ -139,4 +487,199 @@ class BillServiceImplTest {
         assertEquals(BigDecimal.ZERO, totalAmount);
     }
 
-}
\ No newline at end of file
+    @Test
+    void testExport_withoutStatus_streamsEveryStatus() {
+        // Arrange
+        LocalDate startDate = LocalDate.now();
+        LocalDate endDate = LocalDate.now();
+        BillResponse open = new BillResponse(1L, startDate, null, BigDecimal.TEN, "open", BillStatus.OPEN);
+        BillResponse paid = new BillResponse(2L, startDate, endDate, BigDecimal.ONE, "paid", BillStatus.PAID);
+        when(repository.streamForExport(startDate, endDate)).thenReturn(Stream.of(open, paid));
+        List<BillResponse> exported = new ArrayList<>();
+
+        // Act
+        long count = service.export(null, startDate, endDate, exported::add);
+
+        // Assert
+        assertEquals(2, count);
+        assertEquals(List.of(open, paid), exported);
+        verify(repository, never()).streamForExport(any(BillStatus.class), any(), any());
+    }
+
+    @Test
+    void testExport_withStatus_closesStream() {
+        // Arrange
+        LocalDate startDate = LocalDate.now();
+        LocalDate endDate = LocalDate.now();
+        BillResponse paid = new BillResponse(2L, startDate, endDate, BigDecimal.ONE, "paid", BillStatus.PAID);
+        List<Boolean> closed = new ArrayList<>();
+        when(repository.streamForExport(BillStatus.PAID, startDate, endDate))
+                .thenReturn(Stream.of(paid).onClose(() -> closed.add(true)));
+
+        // Act
+        long count = service.export(BillStatus.PAID, startDate, endDate, bill -> { });
+
+        // Assert
+        assertEquals(1, count);
+        assertEquals(List.of(true), closed);
+    }
+
+    @Test
+    void testGetTotalPaid_AddsArchivedBills() {
+        // Arrange
+        LocalDate startDate = LocalDate.of(2020, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 12, 31);
+        when(repository.sumAmountByStatusAndPaymentDateBetween(BillStatus.PAID, startDate, endDate))
+                .thenReturn(BigDecimal.valueOf(60));
+        when(archiveRepository.sumAmountByPaymentDateBetween(startDate, endDate)).thenReturn(BigDecimal.valueOf(40));
+
+        // Act
+        BigDecimal totalAmount = service.getTotalPaid(startDate, endDate);
+
+        // Assert
+        assertEquals(BigDecimal.valueOf(100), totalAmount);
+    }
+
+    @Test
+    void testGet_NotInTheLiveTable_FallsBackToTheArchive() {
+        // Arrange
+        ArchivedBill archivedBill = new ArchivedBill();
+        archivedBill.setId(7L);
+        archivedBill.setPaymentDate(LocalDate.of(2020, 5, 1));
+        archivedBill.setAmount(BigDecimal.TEN);
+        archivedBill.setStatus(BillStatus.PAID);
+        when(repository.findById(7L)).thenReturn(Optional.empty());
+        when(archiveRepository.findById(7L)).thenReturn(Optional.of(archivedBill));
+
+        // Act
+        Optional<Bill> result = service.get(7L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(7L, result.get().getId());
+        assertEquals(BillStatus.PAID, result.get().getStatus());
+        assertEquals(LocalDate.of(2020, 5, 1), result.get().getPaymentDate());
+    }
+
+    @Test
+    void testGetTotalPaid_WithIndexReady_SkipsTheDatabase() {
+        // Arrange
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 1, 31);
+        when(paidAmountIndex.getTotalPaid(startDate, endDate)).thenReturn(Optional.of(BigDecimal.valueOf(42)));
+
+        // Act
+        BigDecimal totalAmount = service.getTotalPaid(startDate, endDate);
+
+        // Assert
+        assertEquals(BigDecimal.valueOf(42), totalAmount);
+        verify(repository, never()).sumAmountByStatusAndPaymentDateBetween(any(), any(), any());
+        verifyNoInteractions(transactionManager);
+    }
+
+    @Test
+    void testGetTotalPaid_WithoutIndex_SumsInOneReadOnlySnapshot() {
+        // Arrange
+        LocalDate startDate = LocalDate.of(2024, 1, 1);
+        LocalDate endDate = LocalDate.of(2024, 1, 31);
+        when(repository.sumAmountByStatusAndPaymentDateBetween(BillStatus.PAID, startDate, endDate))
+                .thenReturn(BigDecimal.valueOf(60));
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+
+        // Act
+        BigDecimal totalAmount = service.getTotalPaid(startDate, endDate);
+
+        // Assert
+        assertEquals(BigDecimal.valueOf(60), totalAmount);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+        assertEquals(TransactionDefinition.ISOLATION_REPEATABLE_READ, definition.getValue().getIsolationLevel());
+    }
+
+    private static BillRepository.PaidBill paidBill(Long id, BigDecimal amount) {
+        return new BillRepository.PaidBill() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return amount;
+            }
+        };
+    }
+
+    private static BillResponse unpaidResponse(Long id) {
+        return new BillResponse(id, LocalDate.now(), null, BigDecimal.TEN, "unpaid", BillStatus.OPEN);
+    }
+
+    private static BillRepository.UpdatedBill updatedBill(Bill current, Bill previous) {
+        return new BillRepository.UpdatedBill() {
+            @Override
+            public Long getId() {
+                return current.getId();
+            }
+
+            @Override
+            public LocalDate getExpiringDate() {
+                return current.getExpiringDate();
+            }
+
+            @Override
+            public LocalDate getPaymentDate() {
+                return current.getPaymentDate();
+            }
+
+            @Override
+            public BigDecimal getAmount() {
+                return current.getAmount();
+            }
+
+            @Override
+            public String getDescription() {
+                return current.getDescription();
+            }
+
+            @Override
+            public BillStatus getStatus() {
+                return current.getStatus();
+            }
+
+            @Override
+            public Instant getCreationDate() {
+                return current.getCreationDate();
+            }
+
+            @Override
+            public String getFingerprint() {
+                return current.getFingerprint();
+            }
+
+            @Override
+            public long getVersion() {
+                return current.getVersion();
+            }
+
+            @Override
+            public Instant getModifiedDate() {
+                return current.getModifiedDate();
+            }
+
+            @Override
+            public BillStatus getPreviousStatus() {
+                return previous.getStatus();
+            }
+
+            @Override
+            public LocalDate getPreviousPaymentDate() {
+                return previous.getPaymentDate();
+            }
+
+            @Override
+            public BigDecimal getPreviousAmount() {
+                return previous.getAmount();
+            }
+        };
+    }
+}
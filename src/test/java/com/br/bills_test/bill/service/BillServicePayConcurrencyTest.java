@@ -0,0 +1,94 @@
+package com.br.bills_test.bill.service;
+
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.entity.Bill;
+import com.br.bills_test.bill.repository.BillRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers a single bill with concurrent payments. Needs the local Postgres from docker-compose.yml.
+ */
+@Tag("performance")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class BillServicePayConcurrencyTest {
+
+    private static final int THREADS = 200;
+    private static final long MAX_P99_MILLIS = 2000;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillRepository repository;
+
+    private Long billId;
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteById(billId);
+    }
+
+    @Test
+    void pay_concurrentRequests_haveExactlyOneWinner() throws Exception {
+        // Arrange
+        LocalDate expiringDate = LocalDate.now().plusDays(30);
+        billId = billService.create(new Bill(expiringDate, null, BigDecimal.TEN, "concurrent-pay")).getId();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Outcome>> futures = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long startedAt = System.nanoTime();
+                    boolean paid;
+                    try {
+                        paid = billService.pay(billId).isPresent();
+                    } catch (IllegalStateException e) {
+                        paid = false;
+                    }
+                    return new Outcome(paid, System.nanoTime() - startedAt);
+                }));
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        // Assert
+        List<Outcome> outcomes = new ArrayList<>();
+        for (Future<Outcome> future : futures) {
+            outcomes.add(future.get());
+        }
+        long winners = outcomes.stream().filter(Outcome::paid).count();
+        long[] latencies = outcomes.stream().mapToLong(Outcome::nanos).sorted().toArray();
+        long p50Millis = TimeUnit.NANOSECONDS.toMillis(latencies[latencies.length / 2]);
+        long p99Millis = TimeUnit.NANOSECONDS.toMillis(latencies[(int) Math.ceil(latencies.length * 0.99) - 1]);
+        System.out.printf("%d concurrent payments: %d winner(s), p50 %d ms, p99 %d ms%n", THREADS, winners, p50Millis, p99Millis);
+
+        assertEquals(1, winners);
+        assertEquals(BillStatus.PAID, repository.findById(billId).orElseThrow().getStatus());
+        assertTrue(p99Millis < MAX_P99_MILLIS, "p99 latency too high: " + p99Millis + " ms");
+    }
+
+    private record Outcome(boolean paid, long nanos) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.br.bills_test.bill.service;
+
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.entity.Bill;
+import com.br.bills_test.bill.index.PaidAmountIndex;
+import com.br.bills_test.bill.repository.BillRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the entity-loading total paid calculation, the SQL aggregate and the in-memory paid
+ * amount index on a seeded dataset, and checks the index against the database afterwards.
+ * Needs the local Postgres from docker-compose.yml.
+ */
+@Tag("performance")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BillServiceTotalPaidBenchmarkTest {
+
+    private static final String DESCRIPTION_PREFIX = "benchmark-total-paid-";
+    private static final int ROWS = 200_000;
+    private static final int CHUNK_SIZE = 1000;
+    private static final int ITERATIONS = 10;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private BillRepository repository;
+
+    @Autowired
+    private PaidAmountIndex paidAmountIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate startDate = LocalDate.of(2023, 1, 1);
+    private final LocalDate endDate = LocalDate.of(2023, 12, 31);
+
+    @BeforeAll
+    void seed() {
+        List<Bill> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 0; i < ROWS; i++) {
+            LocalDate paymentDate = LocalDate.of(2022 + i % 3, i % 12 + 1, i % 28 + 1);
+            Bill bill = new Bill(paymentDate, paymentDate, BigDecimal.valueOf(i % 1000, 2),
+                    DESCRIPTION_PREFIX + i);
+            chunk.add(bill);
+            if (chunk.size() == CHUNK_SIZE) {
+                billService.createAll(chunk);
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        billService.createAll(chunk);
+        jdbcTemplate.execute("ANALYZE bills");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bills WHERE descricao LIKE ?", DESCRIPTION_PREFIX + "%");
+        paidAmountIndex.rebuild();
+    }
+
+    @Test
+    void compareEntityReduceWithSqlAggregate() {
+        BigDecimal reduced = measure("entity reduce", () -> entityManager.createQuery(
+                        "select b from Bill b where b.status = :status and b.paymentDate between :startDate and :endDate", Bill.class)
+                .setParameter("status", BillStatus.PAID)
+                .setParameter("startDate", startDate)
+                .setParameter("endDate", endDate)
+                .getResultStream()
+                .map(Bill::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        BigDecimal aggregated = measure("sql aggregate", () -> repository
+                .sumAmountByStatusAndPaymentDateBetween(BillStatus.PAID, startDate, endDate));
+        assertTrue(paidAmountIndex.isReady(), "Paid amount index was not built");
+        BigDecimal indexed = measure("prefix index", () -> billService.getTotalPaid(startDate, endDate));
+
+        assertEquals(0, reduced.compareTo(aggregated));
+        assertEquals(0, aggregated.compareTo(indexed));
+    }
+
+    @Test
+    void indexMatchesTheDatabaseAfterIncrementalUpdates() {
+        assertEquals(0, paidAmountIndex.verify());
+    }
+
+    private static BigDecimal measure(String name, Supplier<BigDecimal> totalPaid) {
+        BigDecimal result = totalPaid.get();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            result = totalPaid.get();
+        }
+        long averageNanos = (System.nanoTime() - startedAt) / ITERATIONS;
+        System.out.printf("%-15s %,14d ns/op (total %s)%n", name, averageNanos, result);
+        return result;
+    }
+}
@@ -0,0 +1,116 @@
+package com.br.bills_test.bill.service;
+
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.bill.entity.Bill;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares reading a keyset page of unpaid bills as managed entities mapped to BillResponse, in
+ * read-write and read-only transactions, with the BillResponse projection used by the endpoints.
+ * Reports latency and bytes allocated by the calling thread per page size.
+ * Needs the local Postgres from docker-compose.yml.
+ */
+@Tag("performance")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BillUnpaidPageBenchmarkTest {
+
+    private static final String DESCRIPTION_PREFIX = "benchmark-unpaid-page-";
+    private static final int ROWS = 100_000;
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int ITERATIONS = 50;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        // Expiring long before any real bill, so every measured page is made of seeded rows.
+        jdbcTemplate.update("""
+                INSERT INTO bills (id, valor, descricao, data_vencimento, situacao, data_inclusao)
+                SELECT nextval('bills_seq'), (g % 100000) / 100.0, ? || g,
+                       DATE '1990-01-01' + (g % 3650), 'OPEN', now()
+                FROM generate_series(1, ?) AS g
+                """, DESCRIPTION_PREFIX, ROWS);
+        jdbcTemplate.execute("ANALYZE bills");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM bills WHERE descricao LIKE ?", DESCRIPTION_PREFIX + "%");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1000, 10_000})
+    void compareEntityPagesWithProjectionPages(int pageSize) {
+        List<BillResponse> readWrite = measure("entity read-write", pageSize, () -> readEntities(false, pageSize));
+        List<BillResponse> readOnly = measure("entity read-only", pageSize, () -> readEntities(true, pageSize));
+        List<BillResponse> projected = measure("projection", pageSize, () -> billService.getUnpaidBillsAfter(null, pageSize));
+
+        assertEquals(readWrite, projected);
+        assertEquals(readOnly, projected);
+    }
+
+    /**
+     * The read path the endpoints used before the projection: the same page as managed entities,
+     * mapped to responses inside the transaction.
+     */
+    private List<BillResponse> readEntities(boolean readOnly, int pageSize) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> entityManager.createQuery(
+                        "select b from Bill b where b.status <> :status order by b.expiringDate, b.id", Bill.class)
+                .setParameter("status", BillStatus.PAID)
+                .setMaxResults(pageSize)
+                .getResultList().stream()
+                .map(BillResponse::create)
+                .toList());
+    }
+
+    private static List<BillResponse> measure(String name, int pageSize, Supplier<List<BillResponse>> page) {
+        List<BillResponse> result = null;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            result = page.get();
+        }
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            result = page.get();
+        }
+        long averageNanos = (System.nanoTime() - startedAt) / ITERATIONS;
+        long averageBytes = (THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore) / ITERATIONS;
+        System.out.printf("%-18s %,7d rows %,14d ns/op %,14d B/op %,8d B/row%n",
+                name, pageSize, averageNanos, averageBytes, averageBytes / pageSize);
+        return result;
+    }
+}
@@ -0,0 +1,170 @@
+package com.br.bills_test.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Two embedded H2 databases stand in for the primary and a replica. Each holds a marker row
+ * naming it, and the replica exposes its simulated lag in a table read by the lag query.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final String LAG_QUERY = "SELECT millis FROM replica_lag";
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource routingDataSource;
+    private DataSource dataSource;
+    private DataSourceTransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        new JdbcTemplate(replica).execute("CREATE TABLE replica_lag (millis BIGINT)");
+        setReplicaLag(0);
+
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica), LAG_QUERY,
+                Duration.ofSeconds(5), meterRegistry);
+        routingDataSource.afterPropertiesSet();
+        dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransaction_readsFromTheReplica() {
+        assertEquals("replica", readMarker(true));
+    }
+
+    @Test
+    void readWriteTransaction_usesThePrimary() {
+        assertEquals("primary", readMarker(false));
+    }
+
+    @Test
+    void withoutTransaction_usesThePrimary() {
+        assertEquals("primary", jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    @Test
+    void laggingReplica_fallsBackToThePrimaryUntilItCatchesUp() {
+        // Arrange
+        setReplicaLag(10_000);
+
+        // Act
+        routingDataSource.checkReplicaLag();
+
+        // Assert
+        assertEquals(List.of(), routingDataSource.getUsableReplicas());
+        assertEquals("primary", readMarker(true));
+        assertEquals(10_000, meterRegistry.get("bills.datasource.replica.lag").tag("replica", "replica-0").gauge().value());
+
+        // Act
+        setReplicaLag(100);
+        routingDataSource.checkReplicaLag();
+
+        // Assert
+        assertEquals("replica", readMarker(true));
+    }
+
+    @Test
+    void unreachableReplica_fallsBackToThePrimary() {
+        // Arrange
+        new JdbcTemplate(replica).execute("DROP TABLE replica_lag");
+
+        // Act
+        routingDataSource.checkReplicaLag();
+
+        // Assert
+        assertEquals("primary", readMarker(true));
+        assertEquals(-1, meterRegistry.get("bills.datasource.replica.lag").tag("replica", "replica-0").gauge().value());
+    }
+
+    @Test
+    void readOnlyJpaTransaction_readsFromTheReplica() {
+        assertEquals("replica", readMarkerThroughJpa(true));
+    }
+
+    @Test
+    void readWriteJpaTransaction_usesThePrimary() {
+        assertEquals("primary", readMarkerThroughJpa(false));
+    }
+
+    /**
+     * Same check through JpaTransactionManager, as in the application. Hibernate asks for the
+     * connection while the transaction begins, before it is flagged read-only, so routing relies on
+     * the lazy proxy deferring the physical connection to the first statement.
+     */
+    private String readMarkerThroughJpa(boolean readOnly) {
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(ReplicaRoutingDataSourceTest.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+            transactionTemplate.setReadOnly(readOnly);
+            return transactionTemplate.execute(status -> (String) EntityManagerFactoryUtils
+                    .getTransactionalEntityManager(entityManagerFactory)
+                    .createNativeQuery("SELECT name FROM marker")
+                    .getSingleResult());
+        } finally {
+            factoryBean.destroy();
+        }
+    }
+
+    private String readMarker(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    private void setReplicaLag(long millis) {
+        JdbcTemplate replicaTemplate = new JdbcTemplate(replica);
+        replicaTemplate.update("DELETE FROM replica_lag");
+        replicaTemplate.update("INSERT INTO replica_lag (millis) VALUES (?)", millis);
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate template = new JdbcTemplate(database);
+        template.execute("CREATE TABLE marker (name VARCHAR(20))");
+        template.update("INSERT INTO marker (name) VALUES (?)", name);
+        return database;
+    }
+}
@@ -0,0 +1,113 @@
+package com.br.bills_test.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Applies the migrations to a scratch schema, both empty and in the state the first release
+ * left it in: an empty Flyway history next to the BILLS table Hibernate ddl-auto created.
+ * Needs the local Postgres from docker-compose.yml.
+ */
+@Tag("performance")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class SchemaMigrationTest {
+
+    private static final String SCHEMA = "schema_migration_test";
+
+    /**
+     * What ddl-auto generated for the first release's Bill entity, java.util.Date fields included.
+     */
+    private static final String BASELINE_DDL = """
+            CREATE SEQUENCE %1$s.bills_seq START WITH 1 INCREMENT BY 50;
+            CREATE TABLE %1$s.bills (
+               id BIGINT NOT NULL,
+               data_inclusao TIMESTAMP(6),
+               data_pagamento TIMESTAMP(6),
+               data_vencimento TIMESTAMP(6),
+               descricao VARCHAR(255),
+               situacao VARCHAR(255) CHECK (situacao IN ('PAID', 'EXPIRED', 'OPEN')),
+               valor NUMERIC(38, 2),
+               PRIMARY KEY (id)
+            );
+            """.formatted(SCHEMA);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void dropSchema() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void migrate_emptySchema_createsTheCurrentSchema() {
+        // Act
+        flyway("classpath:db.migration").migrate();
+
+        // Assert
+        assertCurrentBillsColumns();
+    }
+
+    @Test
+    void migrate_schemaCreatedByTheFirstRelease_keepsItsBills() {
+        // Arrange
+        // Flyway ran first with nothing to apply, leaving an empty history, then ddl-auto created BILLS
+        flyway("classpath:db/none").migrate();
+        jdbcTemplate.execute(BASELINE_DDL);
+        jdbcTemplate.update(("INSERT INTO %1$s.bills (id, data_inclusao, data_pagamento, data_vencimento, descricao, situacao, valor) " +
+                "VALUES (nextval('%1$s.bills_seq'), now(), '2024-03-10 00:00', '2024-03-05 00:00', 'paid', 'PAID', 10.50)").formatted(SCHEMA));
+        jdbcTemplate.update(("INSERT INTO %1$s.bills (id, data_inclusao, data_vencimento, descricao, situacao, valor) " +
+                "VALUES (nextval('%1$s.bills_seq'), now(), '2030-01-01 00:00', 'open', 'OPEN', 3.00)").formatted(SCHEMA));
+
+        // Act
+        flyway("classpath:db.migration").migrate();
+
+        // Assert
+        assertCurrentBillsColumns();
+        assertEquals(LocalDate.of(2024, 3, 10), jdbcTemplate.queryForObject(
+                "SELECT data_pagamento FROM " + SCHEMA + ".bills WHERE descricao = 'paid'", LocalDate.class));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT count(*) FROM " + SCHEMA + ".bills", Integer.class));
+        // new rows take their id from the sequence Hibernate was already using
+        jdbcTemplate.update("INSERT INTO " + SCHEMA + ".bills (valor, descricao, situacao) VALUES (1.00, 'new', 'OPEN')");
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(DISTINCT id) FROM " + SCHEMA + ".bills", Integer.class));
+    }
+
+    private Flyway flyway(String location) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .locations(location)
+                .baselineOnMigrate(true)
+                .load();
+    }
+
+    private void assertCurrentBillsColumns() {
+        Map<String, String> types = jdbcTemplate.queryForList(
+                        "SELECT column_name, data_type FROM information_schema.columns WHERE table_schema = ? AND table_name = 'bills'",
+                        SCHEMA).stream()
+                .collect(Collectors.toMap(row -> (String) row.get("column_name"), row -> (String) row.get("data_type")));
+        assertEquals("bigint", types.get("id"));
+        assertEquals("numeric", types.get("valor"));
+        assertEquals("text", types.get("descricao"));
+        assertEquals("date", types.get("data_vencimento"));
+        assertEquals("date", types.get("data_pagamento"));
+        assertEquals("character varying", types.get("status"));
+        assertEquals("timestamp with time zone", types.get("data_inclusao"));
+        assertEquals("bigint", types.get("versao"));
+    }
+}
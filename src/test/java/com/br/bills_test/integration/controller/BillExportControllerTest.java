@@ -0,0 +1,173 @@
+package com.br.bills_test.integration.controller;
+
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.dto.BillRequest;
+import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.bill.service.BillService;
+import com.br.bills_test.config.DateFormatConfiguration;
+import com.br.bills_test.config.DateFormats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.bean.CsvToBeanBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class BillExportControllerTest {
+
+    private static final LocalDate START_DATE = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END_DATE = LocalDate.of(2024, 12, 31);
+
+    @Mock
+    private BillService billService;
+    private BillExportController controller;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        controller = new BillExportController(billService,
+                new ObjectMapper().registerModule(DateFormats.jacksonModule()));
+        DefaultFormattingConversionService conversionService = new DefaultFormattingConversionService();
+        new DateFormatConfiguration().addFormatters(conversionService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).setConversionService(conversionService).build();
+    }
+
+    @Test
+    void testExportCsv_roundTripsThroughImportFormat() throws IOException {
+        // Arrange
+        exportRows(null,
+                new BillResponse(1L, LocalDate.of(2024, 3, 10), null, new BigDecimal("10.50"), "Water, March", BillStatus.OPEN),
+                new BillResponse(2L, LocalDate.of(2024, 4, 5), LocalDate.of(2024, 4, 1), new BigDecimal("99.90"), "Say \"hi\"", BillStatus.PAID));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = controller.exportCsv(null, START_DATE, END_DATE);
+        String csv = write(response.getBody());
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        assertTrue(csv.startsWith("expiringDate,paymentDate,amount,description\n"));
+        List<BillRequest> imported = new CsvToBeanBuilder<BillRequest>(new StringReader(csv))
+                .withType(BillRequest.class)
+                .build()
+                .parse();
+        assertEquals(2, imported.size());
+        assertEquals(LocalDate.of(2024, 3, 10), imported.get(0).getExpiringDate());
+        assertNull(imported.get(0).getPaymentDate());
+        assertEquals(new BigDecimal("10.50"), imported.get(0).getAmount());
+        assertEquals("Water, March", imported.get(0).getDescription());
+        assertEquals(LocalDate.of(2024, 4, 1), imported.get(1).getPaymentDate());
+        assertEquals("Say \"hi\"", imported.get(1).getDescription());
+    }
+
+    @Test
+    void testExportNdjson_writesOneBillPerLine() throws IOException {
+        // Arrange
+        exportRows(BillStatus.OPEN,
+                new BillResponse(1L, LocalDate.of(2024, 3, 10), null, BigDecimal.TEN, "a", BillStatus.OPEN),
+                new BillResponse(2L, LocalDate.of(2024, 3, 11), null, BigDecimal.ONE, "b", BillStatus.OPEN));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = controller.exportNdjson(BillStatus.OPEN, START_DATE, END_DATE);
+        String[] lines = write(response.getBody()).split("\n");
+
+        // Assert
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"id\":1"));
+        assertTrue(lines[1].contains("\"expiringDate\":\"11-03-2024\""));
+    }
+
+    @Test
+    void testExport_endDateBeforeStartDate() {
+        // Act
+        ResponseEntity<StreamingResponseBody> csv = controller.exportCsv(null, END_DATE, START_DATE);
+        ResponseEntity<StreamingResponseBody> ndjson = controller.exportNdjson(null, END_DATE, START_DATE);
+
+        // Assert
+        assertEquals(400, csv.getStatusCode().value());
+        assertEquals(400, ndjson.getStatusCode().value());
+        verifyNoInteractions(billService);
+    }
+
+    @Test
+    void testExport_withoutAcceptHeader_returnsCsv() throws Exception {
+        // Arrange
+        exportRows(null, new BillResponse(1L, LocalDate.of(2024, 3, 10), null, BigDecimal.TEN, "a", BillStatus.OPEN));
+
+        // Act
+        MvcResult started = mockMvc.perform(get("/bills/export?startDate=01-01-2024&endDate=31-12-2024"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(BillExportController.TEXT_CSV_VALUE))
+                .andExpect(content().string(startsWith("expiringDate,paymentDate,amount,description\n")));
+    }
+
+    @Test
+    void testExport_acceptingNdjson_returnsNdjson() throws Exception {
+        // Arrange
+        exportRows(null, new BillResponse(1L, LocalDate.of(2024, 3, 10), null, BigDecimal.TEN, "a", BillStatus.OPEN));
+
+        // Act
+        MvcResult started = mockMvc.perform(get("/bills/export?startDate=01-01-2024&endDate=31-12-2024")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void exportRows(BillStatus status, BillResponse... rows) {
+        doAnswer(invocation -> {
+            Consumer<BillResponse> consumer = invocation.getArgument(3);
+            for (BillResponse row : rows) {
+                consumer.accept(row);
+            }
+            return (long) rows.length;
+        }).when(billService).export(eq(status), eq(START_DATE), eq(END_DATE), any(Consumer.class));
+    }
+
+    private static String write(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+}
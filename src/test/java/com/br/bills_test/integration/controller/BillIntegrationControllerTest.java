@@ -2,32 +2,67 @@ package com.br.bills_test.integration.controller;
 
 import com.br.bills_test.bill.dto.BillResponse;
 import com.br.bills_test.bill.entity.Bill;
+import com.br.bills_test.config.DateFormats;
+import com.br.bills_test.integration.ImportJobStatus;
+import com.br.bills_test.integration.dto.ImportJobResponse;
+import com.br.bills_test.integration.dto.ImportSummary;
+import com.br.bills_test.integration.job.ImportJob;
+import com.br.bills_test.integration.service.BillImportJobService;
 import com.br.bills_test.integration.service.BillImportService;
+import com.br.bills_test.integration.service.ImportProgressListener;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 class BillIntegrationControllerTest {
 
     @Mock
     private BillImportService billImportService;
+    @Mock
+    private BillImportJobService billImportJobService;
     private BillIntegrationController controller;
+    private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
-        controller = new BillIntegrationController(billImportService);
+        controller = new BillIntegrationController(billImportService, billImportJobService,
+                new ObjectMapper().registerModule(DateFormats.jacksonModule()));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
     }
 
     @Test
@@ -47,4 +82,103 @@ class BillIntegrationControllerTest {
         assertEquals(200, response.getStatusCodeValue());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testImportBillsInChunks_returnsSummary() throws IOException {
+        MultipartFile file = Mockito.mock(MultipartFile.class);
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        ImportSummary summary = new ImportSummary(2, 2, 0, 0, 1, 10, 1L, 2L, List.of());
+        when(billImportService.importInChunks(any(InputStream.class))).thenReturn(summary);
+        ResponseEntity<ImportSummary> response = controller.importBillsInChunks(file);
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(summary, response.getBody());
+    }
+
+    @Test
+    void testSubmitImportJob_returnsAcceptedWithLocation() {
+        MultipartFile file = Mockito.mock(MultipartFile.class);
+        ImportJob job = new ImportJob("bills.csv", 10, Path.of("bills.csv"));
+        when(billImportJobService.submit(file)).thenReturn(job);
+        ResponseEntity<ImportJobResponse> response = controller.submitImportJob(file);
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals("/bills/upload/" + job.getId(), response.getHeaders().getLocation().toString());
+        assertEquals(ImportJobStatus.QUEUED, response.getBody().status());
+    }
+
+    @Test
+    void testSubmitImportJob_queueFull_returnsServiceUnavailable() {
+        MultipartFile file = Mockito.mock(MultipartFile.class);
+        when(billImportJobService.submit(file)).thenThrow(new RejectedExecutionException());
+        ResponseEntity<ImportJobResponse> response = controller.submitImportJob(file);
+        assertEquals(503, response.getStatusCode().value());
+    }
+
+    @Test
+    void testGetImportJob_found() {
+        ImportJob job = new ImportJob("bills.csv", 10, Path.of("bills.csv"));
+        job.onProgress(3, 2, 1);
+        when(billImportJobService.get(job.getId())).thenReturn(Optional.of(job));
+        ResponseEntity<ImportJobResponse> response = controller.getImportJob(job.getId());
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(3, response.getBody().rowsParsed());
+        assertEquals(2, response.getBody().rowsPersisted());
+        assertEquals(1, response.getBody().rowsFailed());
+    }
+
+    @Test
+    void testGetImportJob_notFound() {
+        UUID jobId = UUID.randomUUID();
+        when(billImportJobService.get(jobId)).thenReturn(Optional.empty());
+        ResponseEntity<ImportJobResponse> response = controller.getImportJob(jobId);
+        assertEquals(404, response.getStatusCode().value());
+    }
+
+    @Test
+    void testStreamImportedBills_writesOneJsonLinePerPersistedBill() throws IOException {
+        MultipartFile file = Mockito.mock(MultipartFile.class);
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        Bill rent = new Bill();
+        rent.setId(1L);
+        rent.setAmount(BigDecimal.TEN);
+        Bill internet = new Bill();
+        internet.setId(2L);
+        when(billImportService.importInChunks(any(InputStream.class), any(ImportProgressListener.class))).thenAnswer(i -> {
+            ImportProgressListener listener = i.getArgument(1);
+            listener.onChunkPersisted(List.of(rent));
+            listener.onChunkPersisted(List.of(internet));
+            return new ImportSummary(2, 2, 0, 0, 2, 1, 1L, 2L, List.of());
+        });
+
+        ResponseEntity<StreamingResponseBody> response = controller.streamImportedBills(file);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"id\":1"));
+        assertTrue(lines[1].contains("\"id\":2"));
+    }
+
+    @Test
+    void testChunkedUpload_withoutAcceptHeader_returnsTheSummary() throws Exception {
+        ImportSummary summary = new ImportSummary(2, 2, 0, 0, 1, 10, 1L, 2L, List.of());
+        when(billImportService.importInChunks(any(InputStream.class))).thenReturn(summary);
+
+        mockMvc.perform(multipart("/bills/upload/chunked").file(csvFile()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.rowsPersisted").value(2));
+    }
+
+    @Test
+    void testChunkedUpload_acceptingNdjson_streamsTheBills() throws Exception {
+        mockMvc.perform(multipart("/bills/upload/chunked").file(csvFile()).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON));
+    }
+
+    private static MockMultipartFile csvFile() {
+        return new MockMultipartFile("file", "bills.csv", "text/csv",
+                "expiringDate,paymentDate,amount,description\n".getBytes(StandardCharsets.UTF_8));
+    }
+}
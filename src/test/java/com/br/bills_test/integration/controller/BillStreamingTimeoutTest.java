@@ -0,0 +1,154 @@
+package com.br.bills_test.integration.controller;
+
+import com.br.bills_test.bill.BillStatus;
+import com.br.bills_test.bill.dto.BillResponse;
+import com.br.bills_test.bill.entity.Bill;
+import com.br.bills_test.bill.service.BillService;
+import com.br.bills_test.config.DateFormatConfiguration;
+import com.br.bills_test.integration.dto.ImportSummary;
+import com.br.bills_test.integration.service.BillImportJobService;
+import com.br.bills_test.integration.service.BillImportService;
+import com.br.bills_test.integration.service.ImportProgressListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the streamed endpoints in a real Tomcat whose own async timeout is one second, and checks
+ * that responses taking longer still complete under the application's async request timeout.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = {
+        BillExportController.class,
+        BillIntegrationController.class,
+        DateFormatConfiguration.class,
+        BillStreamingTimeoutTest.ShortContainerAsyncTimeout.class
+})
+@ImportAutoConfiguration({
+        ServletWebServerFactoryAutoConfiguration.class,
+        DispatcherServletAutoConfiguration.class,
+        WebMvcAutoConfiguration.class,
+        HttpMessageConvertersAutoConfiguration.class,
+        JacksonAutoConfiguration.class,
+        MultipartAutoConfiguration.class,
+        TaskExecutionAutoConfiguration.class
+})
+class BillStreamingTimeoutTest {
+
+    private static final Duration CONTAINER_ASYNC_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration PAUSE_BETWEEN_ROWS = Duration.ofMillis(1500);
+
+    @MockBean
+    private BillService billService;
+
+    @MockBean
+    private BillImportService billImportService;
+
+    @MockBean
+    private BillImportJobService billImportJobService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportNdjson_outlivesTheContainerAsyncTimeout() {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<BillResponse> consumer = invocation.getArgument(3);
+            for (long id = 1; id <= 2; id++) {
+                Thread.sleep(PAUSE_BETWEEN_ROWS.toMillis());
+                consumer.accept(new BillResponse(id, LocalDate.of(2024, 3, 10), null, BigDecimal.TEN, "slow", BillStatus.OPEN));
+            }
+            return 2L;
+        }).when(billService).export(any(), any(), any(), any(Consumer.class));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        // Act
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/bills/export?startDate=01-01-2024&endDate=31-12-2024",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(2, response.getBody().split("\n").length);
+    }
+
+    @Test
+    void streamImportedBills_outlivesTheContainerAsyncTimeout() {
+        // Arrange
+        when(billImportService.importInChunks(any(InputStream.class), any(ImportProgressListener.class))).thenAnswer(invocation -> {
+            ImportProgressListener listener = invocation.getArgument(1);
+            for (long id = 1; id <= 2; id++) {
+                Thread.sleep(PAUSE_BETWEEN_ROWS.toMillis());
+                Bill bill = new Bill(LocalDate.of(2024, 3, 10), null, BigDecimal.TEN, "slow");
+                bill.setId(id);
+                listener.onChunkPersisted(List.of(bill));
+            }
+            return new ImportSummary(2, 2, 0, 0, 2, 1, 1L, 2L, List.of());
+        });
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new ByteArrayResource("expiringDate,paymentDate,amount,description\n".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return "bills.csv";
+            }
+        });
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        // Act
+        ResponseEntity<String> response = restTemplate.exchange(
+                "/bills/upload/chunked", HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+
+        // Assert
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(2, response.getBody().split("\n").length);
+    }
+
+    @TestConfiguration
+    static class ShortContainerAsyncTimeout {
+
+        @Bean
+        WebServerFactoryCustomizer<TomcatServletWebServerFactory> shortAsyncTimeout() {
+            return factory -> factory.addConnectorCustomizers(
+                    connector -> connector.setAsyncTimeout(CONTAINER_ASYNC_TIMEOUT.toMillis()));
+        }
+    }
+}
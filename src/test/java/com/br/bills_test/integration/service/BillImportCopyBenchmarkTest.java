@@ -0,0 +1,136 @@
+package com.br.bills_test.integration.service;
+
+import com.br.bills_test.bill.index.PaidAmountIndex;
+import com.br.bills_test.config.DateFormats;
+import com.br.bills_test.integration.dto.ImportSummary;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Imports the same generated file through the chunked JPA import and the COPY import, prints
+ * their throughput, and checks both derive the same statuses. Then re-sends the file to the COPY
+ * import, which must skip every row. Needs the local Postgres from docker-compose.yml.
+ */
+@Tag("performance")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BillImportCopyBenchmarkTest {
+
+    private static final String JPA_PREFIX = "benchmark-import-jpa-";
+    private static final String COPY_PREFIX = "benchmark-import-copy-";
+    private static final int ROWS = 500_000;
+
+    @Autowired
+    private BillImportService importService;
+
+    @Autowired
+    private PaidAmountIndex paidAmountIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Path jpaFile;
+    private Path copyFile;
+
+    @BeforeAll
+    void writeFiles() throws IOException {
+        jpaFile = writeCsv(JPA_PREFIX);
+        copyFile = writeCsv(COPY_PREFIX);
+    }
+
+    @AfterAll
+    void cleanUp() throws IOException {
+        jdbcTemplate.update("DELETE FROM bills WHERE descricao LIKE ? OR descricao LIKE ?",
+                JPA_PREFIX + "%", COPY_PREFIX + "%");
+        paidAmountIndex.rebuild();
+        Files.deleteIfExists(jpaFile);
+        Files.deleteIfExists(copyFile);
+    }
+
+    @Test
+    @Order(1)
+    void compareChunkedJpaWithCopy() throws IOException {
+        ImportSummary jpa;
+        try (InputStream inputStream = Files.newInputStream(jpaFile)) {
+            jpa = importService.importInChunks(inputStream);
+        }
+        ImportSummary copy;
+        try (InputStream inputStream = Files.newInputStream(copyFile)) {
+            copy = importService.importWithCopy(inputStream);
+        }
+
+        print("chunked jpa", jpa);
+        print("copy", copy);
+        System.out.printf("copy speedup    %.1fx%n", copy.rowsPerSecond() / jpa.rowsPerSecond());
+        assertEquals(ROWS, jpa.rowsPersisted());
+        assertEquals(ROWS, copy.rowsPersisted());
+        assertEquals(countByStatus(JPA_PREFIX), countByStatus(COPY_PREFIX));
+    }
+
+    @Test
+    @Order(2)
+    void resendingTheFileWithCopyInsertsNothing() throws IOException {
+        ImportSummary copy;
+        try (InputStream inputStream = Files.newInputStream(copyFile)) {
+            copy = importService.importWithCopy(inputStream);
+        }
+
+        print("copy resent", copy);
+        assertEquals(ROWS, copy.rowsParsed());
+        assertEquals(0, copy.rowsPersisted());
+        assertEquals(ROWS, copy.rowsDuplicated());
+    }
+
+    private Map<String, Long> countByStatus(String prefix) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT situacao, count(*) AS total FROM bills WHERE descricao LIKE ? GROUP BY situacao", prefix + "%");
+        return rows.stream().collect(Collectors.toMap(
+                row -> (String) row.get("situacao"), row -> ((Number) row.get("total")).longValue()));
+    }
+
+    private static void print(String name, ImportSummary summary) {
+        System.out.printf("%-15s %,9d rows in %,7d ms (%,.0f rows/s)%n",
+                name, summary.rowsPersisted(), summary.elapsedMillis(), summary.rowsPerSecond());
+    }
+
+    /**
+     * Writes a CSV with a third of the bills paid, a third expired and a third still open.
+     */
+    private static Path writeCsv(String prefix) throws IOException {
+        Path file = Files.createTempFile(prefix, ".csv");
+        LocalDate today = LocalDate.now();
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("expiringDate,paymentDate,amount,description\n");
+            for (int row = 0; row < ROWS; row++) {
+                LocalDate expiringDate = row % 3 == 2 ? today.plusDays(row % 365 + 1) : today.minusDays(row % 365 + 1);
+                String paymentDate = row % 3 == 0 ? expiringDate.format(DateFormats.FORMATTER) : "";
+                writer.write(expiringDate.format(DateFormats.FORMATTER) + ","
+                        + paymentDate + "," + row % 5000 + "." + String.format("%02d", row % 100) + ","
+                        + prefix + row + "\n");
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,162 @@
+package com.br.bills_test.integration.service;
+
+import com.br.bills_test.integration.ImportJobStatus;
+import com.br.bills_test.integration.dto.ImportSummary;
+import com.br.bills_test.integration.job.ImportJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+class BillImportJobServiceImplTest {
+
+    @Mock
+    private BillImportService billImportService;
+
+    @TempDir
+    Path spoolDirectory;
+
+    private BillImportJobServiceImpl jobService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jobService = new BillImportJobServiceImpl(billImportService, spoolDirectory, 1, 1, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    void testSubmit_runsImportAndReportsProgress() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "bills.csv", "text/csv", "content".getBytes());
+        when(billImportService.importInChunks(any(InputStream.class), any(ImportProgressListener.class))).thenAnswer(i -> {
+            ImportProgressListener listener = i.getArgument(1);
+            listener.onProgress(3, 2, 1);
+            return new ImportSummary(3, 2, 1, 0, 1, 5, 1L, 2L, List.of());
+        });
+
+        // Act
+        ImportJob job = jobService.submit(file);
+        awaitFinished(job);
+
+        // Assert
+        assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(3, job.getRowsParsed());
+        assertEquals(2, job.getRowsPersisted());
+        assertEquals(1, job.getRowsFailed());
+        assertFalse(Files.exists(job.getSpoolFile()));
+        assertTrue(jobService.get(job.getId()).isPresent());
+    }
+
+    @Test
+    void testSubmit_importFails_marksJobAsFailed() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "bills.csv", "text/csv", "content".getBytes());
+        when(billImportService.importInChunks(any(InputStream.class), any(ImportProgressListener.class)))
+                .thenThrow(new IllegalStateException("database down"));
+
+        // Act
+        ImportJob job = jobService.submit(file);
+        awaitFinished(job);
+
+        // Assert
+        assertEquals(ImportJobStatus.FAILED, job.getStatus());
+        assertEquals("database down", job.getError());
+    }
+
+    @Test
+    void testSubmit_queueFull_rejectsBeforeSpooling() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        blockImportsUntil(release);
+        try {
+            jobService.submit(csv());
+            jobService.submit(csv());
+
+            // Act
+            assertThrows(RejectedExecutionException.class, () -> jobService.submit(csv()));
+
+            // Assert
+            assertEquals(2, spooledFiles());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testShutdown_deletesSpoolFilesOfQueuedJobs() throws Exception {
+        // Arrange
+        blockImportsUntil(new CountDownLatch(1));
+        ImportJob running = jobService.submit(csv());
+        ImportJob queued = jobService.submit(csv());
+        awaitRunning(running);
+
+        // Act
+        jobService.shutdown();
+
+        // Assert
+        assertFalse(Files.exists(queued.getSpoolFile()));
+        awaitFinished(running);
+        assertEquals(ImportJobStatus.FAILED, running.getStatus());
+        assertFalse(Files.exists(running.getSpoolFile()));
+    }
+
+    @Test
+    void testGet_unknownJob_returnsEmpty() {
+        assertTrue(jobService.get(UUID.randomUUID()).isEmpty());
+    }
+
+    private void blockImportsUntil(CountDownLatch release) {
+        when(billImportService.importInChunks(any(InputStream.class), any(ImportProgressListener.class))).thenAnswer(i -> {
+            release.await();
+            return new ImportSummary(0, 0, 0, 0, 0, 0, null, null, List.of());
+        });
+    }
+
+    private long spooledFiles() throws Exception {
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            return files.count();
+        }
+    }
+
+    private static MockMultipartFile csv() {
+        return new MockMultipartFile("file", "bills.csv", "text/csv", "content".getBytes());
+    }
+
+    private static void awaitRunning(ImportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (job.getStatus() == ImportJobStatus.QUEUED && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(ImportJobStatus.RUNNING, job.getStatus(), "Job did not start in time");
+    }
+
+    private static void awaitFinished(ImportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished(), "Job did not finish in time");
+    }
+}
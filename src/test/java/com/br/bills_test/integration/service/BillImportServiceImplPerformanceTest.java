@@ -0,0 +1,169 @@
+package com.br.bills_test.integration.service;
+
+import com.br.bills_test.bill.service.BillService;
+import com.br.bills_test.integration.dto.ImportSummary;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports a generated one million row file through the chunked import into the real BILLS table
+ * once per chunk size, and checks the heap stays flat and throughput grows with the chunk size.
+ * Needs the local Postgres from docker-compose.yml.
+ */
+@Tag("performance")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BillImportServiceImplPerformanceTest {
+
+    private static final String DESCRIPTION_PREFIX = "benchmark-import-chunk-";
+    private static final int ROWS = 1_000_000;
+    private static final int[] CHUNK_SIZES = {100, 1000, 5000};
+    private static final int HEAP_SAMPLE_ROWS = 100_000;
+    private static final long MAX_HEAP_GROWTH_BYTES = 32L * 1024 * 1024;
+
+    @Autowired
+    private BillService billService;
+
+    @Autowired
+    private ImportMetrics importMetrics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterAll
+    void cleanUp() {
+        // The generated bills are all unpaid, so the paid amount index needs no rebuild
+        jdbcTemplate.update("DELETE FROM bills WHERE descricao LIKE ?", DESCRIPTION_PREFIX + "%");
+    }
+
+    @Test
+    void testImportInChunks_oneMillionRows_keepsHeapFlatAndScalesWithChunkSize() {
+        // Arrange
+        Map<Integer, ImportSummary> summaries = new LinkedHashMap<>();
+        Map<Integer, Long> heapGrowths = new LinkedHashMap<>();
+
+        // Act
+        for (int chunkSize : CHUNK_SIZES) {
+            BillImportServiceImpl importService = new BillImportServiceImpl(billService, importMetrics, chunkSize);
+            HeapSampler heapSampler = new HeapSampler();
+            // Each run has its own descriptions, so no row is skipped as a duplicate of an earlier run
+            String prefix = DESCRIPTION_PREFIX + chunkSize + "-";
+            summaries.put(chunkSize, importService.importInChunks(new SyntheticCsvInputStream(prefix, ROWS), heapSampler));
+            heapGrowths.put(chunkSize, heapSampler.maxGrowth.get());
+        }
+
+        // Assert
+        summaries.forEach((chunkSize, summary) -> System.out.printf(
+                "chunk %,6d: %,d rows in %,7d ms (%,.0f rows/s), max heap growth %,d KB%n",
+                chunkSize, summary.rowsPersisted(), summary.elapsedMillis(), summary.rowsPerSecond(),
+                heapGrowths.get(chunkSize) / 1024));
+        summaries.forEach((chunkSize, summary) -> {
+            assertEquals(ROWS, summary.rowsParsed());
+            assertEquals(ROWS, summary.rowsPersisted());
+            assertEquals(ROWS / chunkSize, summary.chunks());
+            assertTrue(heapGrowths.get(chunkSize) < MAX_HEAP_GROWTH_BYTES,
+                    "Heap grew by " + heapGrowths.get(chunkSize) + " bytes while importing in chunks of " + chunkSize);
+        });
+        double smallest = summaries.get(CHUNK_SIZES[0]).rowsPerSecond();
+        double largest = summaries.get(CHUNK_SIZES[CHUNK_SIZES.length - 1]).rowsPerSecond();
+        assertTrue(largest > smallest,
+                "Chunks of " + CHUNK_SIZES[CHUNK_SIZES.length - 1] + " imported " + largest
+                        + " rows/s, not faster than chunks of " + CHUNK_SIZES[0] + " at " + smallest + " rows/s");
+    }
+
+    /**
+     * Measures the used heap after a GC every HEAP_SAMPLE_ROWS persisted rows, whatever the chunk
+     * size, and keeps the largest growth over the first sample.
+     */
+    private static final class HeapSampler implements ImportProgressListener {
+
+        private final AtomicLong maxGrowth = new AtomicLong();
+        private long baseline = -1;
+        private long samples;
+
+        @Override
+        public void onProgress(long rowsParsed, long rowsPersisted, long rowsRejected) {
+            if (rowsPersisted / HEAP_SAMPLE_ROWS <= samples) {
+                return;
+            }
+            samples = rowsPersisted / HEAP_SAMPLE_ROWS;
+            long used = usedHeapAfterGc();
+            if (baseline < 0) {
+                baseline = used;
+            } else {
+                maxGrowth.accumulateAndGet(used - baseline, Math::max);
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Generates a CSV file row by row, so the test itself never holds the whole file in memory.
+     */
+    private static final class SyntheticCsvInputStream extends InputStream {
+
+        private final String prefix;
+        private final int rows;
+        private int row = -1;
+        private byte[] current = "expiringDate,paymentDate,amount,description\n".getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        private SyntheticCsvInputStream(String prefix, int rows) {
+            this.prefix = prefix;
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == current.length && !nextRow()) {
+                return -1;
+            }
+            return current[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position == current.length && !nextRow()) {
+                return -1;
+            }
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(current, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        private boolean nextRow() {
+            if (++row >= rows) {
+                return false;
+            }
+            int day = row % 28 + 1;
+            int month = row % 12 + 1;
+            String line = String.format("%02d-%02d-2030,,%d.%02d,%s%d%n", day, month, row % 5000, row % 100, prefix, row);
+            current = line.getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+}
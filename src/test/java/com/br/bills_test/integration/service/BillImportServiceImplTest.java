@@ -1,21 +1,33 @@
 package com.br.bills_test.integration.service;
 
+import com.br.bills_test.bill.dto.BulkLoadResult;
 import com.br.bills_test.bill.entity.Bill;
 import com.br.bills_test.bill.service.BillService;
+import com.br.bills_test.config.DateFormats;
+import com.br.bills_test.integration.dto.ImportSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class BillImportServiceImplTest {
@@ -23,12 +35,15 @@ class BillImportServiceImplTest {
     @Mock
     private BillService billService;
 
-    @InjectMocks
     private BillImportServiceImpl billImportService;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        billImportService = new BillImportServiceImpl(billService, new ImportMetrics(meterRegistry), 2);
     }
 
     @Test
@@ -44,26 +59,216 @@ class BillImportServiceImplTest {
     }
 
     @Test
-    void testImportBillsValidData() throws ParseException {
+    void testImportBillsValidData() {
         // Arrange
         String csvData = "expiringDate,paymentDate,amount,description\n" +
                 "01-01-2022,15-01-2022,100.00,Rent\n" +
                 "15-02-2022,01-03-2022,200.00,Internet";
         MockMultipartFile file = new MockMultipartFile("bills.csv", csvData.getBytes());
         when(billService.create(any())).thenAnswer(i -> i.getArguments()[0]);
-        SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy");
         // Act
         List<Bill> bills = billImportService.importBills(file);
         // Assert
         assertEquals(2, bills.size());
         assertEquals("Rent", bills.get(0).getDescription());
         assertEquals(0, BigDecimal.valueOf(100).compareTo(bills.get(0).getAmount()));
-        assertEquals("01-01-2022", sdf.format(bills.get(0).getExpiringDate()));
-        assertEquals("15-01-2022", sdf.format(bills.get(0).getPaymentDate()));
+        assertEquals("01-01-2022", DateFormats.FORMATTER.format(bills.get(0).getExpiringDate()));
+        assertEquals("15-01-2022", DateFormats.FORMATTER.format(bills.get(0).getPaymentDate()));
         assertEquals("Internet", bills.get(1).getDescription());
         assertEquals(0, BigDecimal.valueOf(200).compareTo(bills.get(1).getAmount()));
-        assertEquals("01-03-2022", sdf.format(bills.get(1).getPaymentDate()));
-        assertEquals("15-02-2022", sdf.format(bills.get(1).getExpiringDate()));
+        assertEquals("01-03-2022", DateFormats.FORMATTER.format(bills.get(1).getPaymentDate()));
+        assertEquals("15-02-2022", DateFormats.FORMATTER.format(bills.get(1).getExpiringDate()));
+    }
+
+    @Test
+    void testImportInChunks_persistsRowsInFixedSizeChunks() {
+        // Arrange
+        String csvData = "expiringDate,paymentDate,amount,description\n" +
+                "01-01-2022,15-01-2022,100.00,Rent\n" +
+                "15-02-2022,01-03-2022,200.00,Internet\n" +
+                "15-03-2022,,300.00,Water";
+        when(billService.createAll(anyList())).thenAnswer(i -> i.getArguments()[0]);
+
+        // Act
+        ImportSummary summary = billImportService.importInChunks(new ByteArrayInputStream(csvData.getBytes()));
+
+        // Assert
+        assertEquals(3, summary.rowsParsed());
+        assertEquals(3, summary.rowsPersisted());
+        assertEquals(0, summary.rowsRejected());
+        assertEquals(2, summary.chunks());
+        verify(billService, times(2)).createAll(anyList());
+    }
+
+    @Test
+    void testImportInChunks_skipsRejectedRows() {
+        // Arrange
+        String csvData = "expiringDate,paymentDate,amount,description\n" +
+                "01-01-2022,15-01-2022,100.00,Rent\n" +
+                "not-a-date,,200.00,Internet";
+        when(billService.createAll(anyList())).thenAnswer(i -> i.getArguments()[0]);
+
+        // Act
+        ImportSummary summary = billImportService.importInChunks(new ByteArrayInputStream(csvData.getBytes()));
+
+        // Assert
+        assertEquals(1, summary.rowsParsed());
+        assertEquals(1, summary.rowsPersisted());
+        assertEquals(1, summary.rowsRejected());
+        assertEquals(1, summary.rejectedRows().size());
+        assertEquals(3, summary.rejectedRows().get(0).line());
+    }
+
+    @Test
+    void testImportInChunks_reportsIdRangeAndPersistedChunks() {
+        // Arrange
+        String csvData = "expiringDate,paymentDate,amount,description\n" +
+                "01-01-2022,15-01-2022,100.00,Rent\n" +
+                "15-02-2022,01-03-2022,200.00,Internet\n" +
+                "15-03-2022,,300.00,Water";
+        AtomicLong ids = new AtomicLong(10);
+        when(billService.createAll(anyList())).thenAnswer(i -> {
+            List<Bill> bills = i.getArgument(0);
+            bills.forEach(bill -> bill.setId(ids.incrementAndGet()));
+            return bills;
+        });
+        List<Integer> chunkSizes = new ArrayList<>();
+        ImportProgressListener listener = new ImportProgressListener() {
+            @Override
+            public void onProgress(long rowsParsed, long rowsPersisted, long rowsRejected) {
+            }
+
+            @Override
+            public void onChunkPersisted(List<Bill> bills) {
+                chunkSizes.add(bills.size());
+            }
+        };
+
+        // Act
+        ImportSummary summary = billImportService.importInChunks(new ByteArrayInputStream(csvData.getBytes()), listener);
+
+        // Assert
+        assertEquals(11L, summary.firstId());
+        assertEquals(13L, summary.lastId());
+        assertEquals(List.of(2, 1), chunkSizes);
+    }
+
+    @Test
+    void testImportInChunks_recordsMetrics() {
+        // Arrange
+        String csvData = "expiringDate,paymentDate,amount,description\n" +
+                "01-01-2022,15-01-2022,100.00,Rent\n" +
+                "15-02-2022,01-03-2022,200.00,Internet\n" +
+                "not-a-date,,300.00,Water";
+        when(billService.createAll(anyList())).thenAnswer(i -> i.getArguments()[0]);
+
+        // Act
+        billImportService.importInChunks(new ByteArrayInputStream(csvData.getBytes()));
+
+        // Assert
+        assertEquals(2, meterRegistry.get("bills.import.rows").tag("result", "parsed").counter().count());
+        assertEquals(2, meterRegistry.get("bills.import.rows").tag("result", "persisted").counter().count());
+        assertEquals(1, meterRegistry.get("bills.import.rows").tag("result", "rejected").counter().count());
+        assertEquals(csvData.getBytes().length, meterRegistry.get("bills.import.bytes").counter().count());
+        assertEquals(1, meterRegistry.get("bills.import.duration")
+                .tag("mode", "chunked").tag("outcome", "success").timer().count());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testImportInChunks_skipsRowsAlreadyImported() {
+        // Arrange
+        String csvData = "expiringDate,paymentDate,amount,description\n" +
+                "01-01-2022,15-01-2022,100.00,Rent\n" +
+                "15-02-2022,01-03-2022,200.00,Internet\n" +
+                "15-03-2022,,300.00,Water";
+        List<String> fingerprints = new ArrayList<>();
+        when(billService.findImportedFingerprints(anyCollection())).thenAnswer(i -> {
+            fingerprints.addAll(i.getArgument(0));
+            return fingerprints.size() == 2 ? Set.of(fingerprints.get(0)) : Set.of();
+        });
+        List<Bill> persisted = new ArrayList<>();
+        when(billService.createAll(anyList())).thenAnswer(i -> {
+            persisted.addAll(i.getArgument(0));
+            return i.getArguments()[0];
+        });
+
+        // Act
+        ImportSummary summary = billImportService.importInChunks(new ByteArrayInputStream(csvData.getBytes()));
+
+        // Assert
+        assertEquals(3, summary.rowsParsed());
+        assertEquals(2, summary.rowsPersisted());
+        assertEquals(1, summary.rowsDuplicated());
+        assertEquals(List.of("Internet", "Water"), persisted.stream().map(Bill::getDescription).toList());
+        persisted.forEach(bill -> assertNotNull(bill.getFingerprint()));
+        assertEquals(1, meterRegistry.get("bills.import.rows").tag("result", "duplicate").counter().count());
+    }
+
+    @Test
+    void testImportInChunks_fullyDuplicatedFileWritesNothing() {
+        // Arrange
+        String csvData = "expiringDate,paymentDate,amount,description\n" +
+                "01-01-2022,15-01-2022,100.00,Rent\n" +
+                "01-01-2022,,100.0,Rent\n" +
+                "15-02-2022,01-03-2022,200.00,Internet";
+        when(billService.findImportedFingerprints(anyCollection())).thenAnswer(i -> Set.copyOf(i.getArgument(0)));
+
+        // Act
+        ImportSummary summary = billImportService.importInChunks(new ByteArrayInputStream(csvData.getBytes()));
+
+        // Assert
+        assertEquals(3, summary.rowsParsed());
+        assertEquals(0, summary.rowsPersisted());
+        assertEquals(3, summary.rowsDuplicated());
+        assertEquals(0, summary.chunks());
+        verify(billService, times(2)).findImportedFingerprints(anyCollection());
+        verify(billService, never()).createAll(anyList());
+    }
+
+    @Test
+    void testImportBills_skipsRowsRepeatedInTheFile() {
+        // Arrange
+        String csvData = "expiringDate,paymentDate,amount,description\n" +
+                "01-01-2022,15-01-2022,100.00,Rent\n" +
+                "01-01-2022,15-01-2022,100,Rent";
+        when(billService.create(any())).thenAnswer(i -> i.getArguments()[0]);
+
+        // Act
+        List<Bill> bills = billImportService.importBills(new MockMultipartFile("bills.csv", csvData.getBytes()));
+
+        // Assert
+        assertEquals(1, bills.size());
+        verify(billService, times(1)).create(any());
+        assertEquals(1, meterRegistry.get("bills.import.rows").tag("result", "duplicate").counter().count());
+    }
+
+    @Test
+    void testImportWithCopy_streamsFingerprintedRowsToTheBulkLoad() {
+        // Arrange
+        String csvData = "expiringDate,paymentDate,amount,description\n" +
+                "01-01-2022,15-01-2022,100.00,Rent\n" +
+                "not-a-date,,200.00,Internet\n" +
+                "15-03-2022,,300.00,Water";
+        List<Bill> copied = new ArrayList<>();
+        when(billService.copyAll(any())).thenAnswer(i -> {
+            Iterator<Bill> bills = i.getArgument(0);
+            bills.forEachRemaining(copied::add);
+            return new BulkLoadResult(copied.size(), 1, 7L, 7L);
+        });
+
+        // Act
+        ImportSummary summary = billImportService.importWithCopy(new ByteArrayInputStream(csvData.getBytes()));
+
+        // Assert
+        assertEquals(List.of("Rent", "Water"), copied.stream().map(Bill::getDescription).toList());
+        copied.forEach(bill -> assertNotNull(bill.getFingerprint()));
+        assertEquals(2, summary.rowsParsed());
+        assertEquals(1, summary.rowsPersisted());
+        assertEquals(1, summary.rowsRejected());
+        assertEquals(1, summary.rowsDuplicated());
+        assertEquals(7L, summary.firstId());
+        verify(billService, never()).createAll(anyList());
+        assertEquals(1, meterRegistry.get("bills.import.duration")
+                .tag("mode", "copy").tag("outcome", "success").timer().count());
+    }
+}